@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.boyu"
@@ -15,10 +16,13 @@ dependencies {
 
     // JSR 330
     implementation("jakarta.inject:jakarta.inject-api:2.0.0")
+
+    // JSR 250 @PostConstruct and @PreDestroy
+    implementation("jakarta.annotation:jakarta.annotation-api:2.1.1")
     annotationProcessor("org.glassfish:javax.annotation:10.0-b28")
 
-    // Apache Common Collections
-    implementation("org.apache.commons:commons-collections4:4.4")
+    // generated, reflection-free factories for @Inject components, here only for the test fixtures
+    testAnnotationProcessor(project(":processor"))
 
     testImplementation(platform("org.junit:junit-bom:5.9.1"))
     testImplementation("org.junit.jupiter:junit-jupiter")
@@ -35,4 +39,117 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// JMH benchmarks live in src/jmh/java; run with `./gradlew jmh`
+val syntheticGraphDir = layout.buildDirectory.dir("generated/sources/syntheticGraph/java")
+
+val generateSyntheticGraph by tasks.registering {
+    description = "Generates the synthetic component graphs used by the JMH benchmarks"
+    val maxDepth = 256
+    val widths = listOf(1, 8, 32)
+    val graphSize = 3000
+    inputs.property("maxDepth", maxDepth)
+    inputs.property("widths", widths)
+    inputs.property("graphSize", graphSize)
+    outputs.dir(syntheticGraphDir)
+
+    doLast {
+        val dir = syntheticGraphDir.get().dir("org/boyu/synthetic").asFile
+        dir.deleteRecursively()
+        dir.mkdirs()
+        val header = "package org.boyu.synthetic;\n\nimport jakarta.inject.Inject;\n\n"
+        // components are public so that the container can instantiate them from another package
+        fun component(name: String, body: String) = dir.resolve("$name.java").writeText("${header}public class $name {\n$body}\n")
+        fun classes(prefix: String, size: Int) = (0 until size).joinToString(", ") { "$prefix$it.class" }
+
+        // chains: link i depends on link i + 1, the last link depends on nothing
+        for (i in 0 until maxDepth) {
+            val next = (i + 1).takeIf { it < maxDepth }
+            component("ConstructorLink$i", "    @Inject\n    public ConstructorLink$i(${next?.let { "ConstructorLink$it next" } ?: ""}) {\n    }\n")
+            component("FieldLink$i", next?.let { "    @Inject\n    public FieldLink$it next;\n" } ?: "")
+            component("MethodLink$i", "    @Inject\n    public void install(${next?.let { "MethodLink$it next" } ?: ""}) {\n    }\n")
+        }
+
+        for (j in 0 until widths.max()) component("Leaf$j", "")
+        for (w in widths) {
+            component("Wide$w", "    @Inject\n    public Wide$w(${(0 until w).joinToString(", ") { "Leaf$it leaf$it" }}) {\n    }\n")
+        }
+
+        // a DAG with shared dependencies: node i depends on up to three earlier nodes
+        for (i in 0 until graphSize) {
+            val deps = listOf(i / 2, i - 1, (i * 7) / 11).filter { it in 0 until i }.distinct()
+            component("Node$i", "    @Inject\n    public Node$i(${deps.joinToString(", ") { "Node$it node$it" }}) {\n    }\n")
+        }
+
+        dir.resolve("SyntheticGraph.java").writeText("""
+            |package org.boyu.synthetic;
+            |
+            |import org.boyu.ContextConfig;
+            |
+            |public final class SyntheticGraph {
+            |    public static final int MAX_DEPTH = $maxDepth;
+            |
+            |    private static final Class<?>[] CONSTRUCTOR_LINKS = {${classes("ConstructorLink", maxDepth)}};
+            |    private static final Class<?>[] FIELD_LINKS = {${classes("FieldLink", maxDepth)}};
+            |    private static final Class<?>[] METHOD_LINKS = {${classes("MethodLink", maxDepth)}};
+            |    private static final Class<?>[] LEAVES = {${classes("Leaf", widths.max())}};
+            |    private static final Class<?>[] NODES = {${classes("Node", graphSize)}};
+            |
+            |    private SyntheticGraph() {
+            |    }
+            |
+            |    /** binds a chain of {@code depth} components injected via constructors, returning its head */
+            |    public static Class<?> bindConstructorChain(ContextConfig config, int depth) {
+            |        return bindAll(config, CONSTRUCTOR_LINKS, MAX_DEPTH - depth);
+            |    }
+            |
+            |    /** binds a chain of {@code depth} components injected via fields, returning its head */
+            |    public static Class<?> bindFieldChain(ContextConfig config, int depth) {
+            |        return bindAll(config, FIELD_LINKS, MAX_DEPTH - depth);
+            |    }
+            |
+            |    /** binds a chain of {@code depth} components injected via methods, returning its head */
+            |    public static Class<?> bindMethodChain(ContextConfig config, int depth) {
+            |        return bindAll(config, METHOD_LINKS, MAX_DEPTH - depth);
+            |    }
+            |
+            |    /** binds a component with {@code width} constructor dependencies, returning it */
+            |    public static Class<?> bindWide(ContextConfig config, int width) {
+            |        bindAll(config, LEAVES, 0);
+            |        switch (width) {
+            |${widths.joinToString("\n") { "            case $it: return bindAll(config, new Class<?>[]{Wide$it.class}, 0);" }}
+            |            default: throw new IllegalArgumentException("width one of $widths only");
+            |        }
+            |    }
+            |
+            |    /** binds the whole $graphSize-node graph, returning the node with the most transitive dependencies */
+            |    public static Class<?> bindGraph(ContextConfig config) {
+            |        bindAll(config, NODES, 0);
+            |        return NODES[NODES.length - 1];
+            |    }
+            |
+            |    private static Class<?> bindAll(ContextConfig config, Class<?>[] types, int from) {
+            |        for (int i = from; i < types.length; i++) bindSelf(config, types[i]);
+            |        return types[from];
+            |    }
+            |
+            |    private static <T> void bindSelf(ContextConfig config, Class<T> type) {
+            |        config.bind(type, type);
+            |    }
+            |}
+            |""".trimMargin())
+    }
+}
+
+sourceSets.named("jmh") {
+    java.srcDir(generateSyntheticGraph)
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    profilers.add("gc")
+}
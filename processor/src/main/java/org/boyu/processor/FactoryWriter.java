@@ -0,0 +1,89 @@
+package org.boyu.processor;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders the source of one generated factory. Dependencies are listed constructor parameters first, then fields,
+ * then method parameters, which is also the order {@code create} reads them from its array.
+ */
+class FactoryWriter {
+    private final InjectProcessor processor;
+    private final InjectProcessor.Component component;
+    private final String packageName;
+    private final String factoryName;
+
+    FactoryWriter(InjectProcessor processor, InjectProcessor.Component component, String packageName, String factoryName) {
+        this.processor = processor;
+        this.component = component;
+        this.packageName = packageName;
+        this.factoryName = factoryName;
+    }
+
+    String toSource() {
+        final String type = component.type().getQualifiedName().toString();
+        final List<String> dependencies = new ArrayList<>();
+        final StringBuilder create = new StringBuilder();
+
+        create.append("        final ").append(type).append(" instance = new ").append(type)
+                .append("(").append(arguments(component.constructor(), dependencies)).append(");\n");
+        for (VariableElement field : component.fields()) {
+            create.append("        ").append(receiver(field, type)).append(".").append(field.getSimpleName())
+                    .append(" = ").append(argument(processor.erasure(field.asType()), dependencies)).append(";\n");
+        }
+        for (ExecutableElement method : component.methods()) {
+            create.append("        instance.").append(method.getSimpleName())
+                    .append("(").append(arguments(method, dependencies)).append(");\n");
+        }
+        create.append("        return instance;\n");
+
+        final StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(InjectProcessor.class.getName()).append("\")\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(factoryName).append(" implements org.boyu.ComponentProvider<").append(type).append("> {\n")
+                .append("    private static final java.util.List<org.boyu.Key<?>> DEPENDENCIES = java.util.List.of(")
+                .append(String.join(", ", dependencies.stream().map(it -> "org.boyu.Key.of(" + it + ".class)").toList())).append(");\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(type).append(" get(org.boyu.Context context) {\n")
+                .append("        final Object[] dependencies = new Object[DEPENDENCIES.size()];\n")
+                .append("        for (int i = 0; i < dependencies.length; i++) {\n")
+                .append("            dependencies[i] = context.require(DEPENDENCIES.get(i));\n")
+                .append("        }\n")
+                .append("        return create(dependencies);\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<org.boyu.Key<?>> getDependencies() {\n")
+                .append("        return DEPENDENCIES;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(type).append(" create(Object[] dependencies) {\n")
+                .append(create)
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * A field of a super is assigned through a cast to it, as a sub may hide it with a field of the same name.
+     */
+    private static String receiver(VariableElement field, String type) {
+        final String declaring = ((TypeElement) field.getEnclosingElement()).getQualifiedName().toString();
+        return declaring.equals(type) ? "instance" : "((" + declaring + ") instance)";
+    }
+
+    private String arguments(ExecutableElement executable, List<String> dependencies) {
+        return String.join(", ", executable.getParameters().stream()
+                .map(it -> argument(processor.erasure(it.asType()), dependencies))
+                .toList());
+    }
+
+    private static String argument(String type, List<String> dependencies) {
+        final String argument = "(" + type + ") dependencies[" + dependencies.size() + "]";
+        dependencies.add(type);
+        return argument;
+    }
+}
@@ -0,0 +1,288 @@
+package org.boyu.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generates a reflection-free {@code ComponentProvider} for every class with {@code @Inject} constructors, fields or
+ * methods (its own or inherited), named after the binary name of the class with {@code $} replaced by {@code _},
+ * plus {@code _Factory}, in the same package. {@code ContextConfig.bind(Class, Class)} picks it up when present.
+ * <p>
+ * Classes the generated code cannot construct directly (abstract, non-static inner, private members, ...), with
+ * generic or qualified dependencies, or that are illegal components are skipped, leaving them to the reflective
+ * {@code ConstructionInjectionProvider}, which also reports their errors.
+ * <p>
+ * Every class the container can bind, factory or not, is also listed in {@value #INDEX}, read by
+ * {@code ContextConfig.bindFromIndex()}: one line per class, its binary name followed by those of all the interfaces
+ * it implements but the JDK's, separated by spaces.
+ */
+@SupportedAnnotationTypes("*")
+public class InjectProcessor extends AbstractProcessor {
+    static final String INJECT = "jakarta.inject.Inject";
+    static final String QUALIFIER = "jakarta.inject.Qualifier";
+    static final String FACTORY_SUFFIX = "_Factory";
+    static final String INDEX = "META-INF/di/components.idx";
+
+    private final List<String> index = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(allTypes(roundEnv.getRootElements()))) {
+            getComponent(type).ifPresent(this::write);
+            if (isBindable(type)) index.add(indexEntry(type));
+        }
+        if (roundEnv.processingOver() && !index.isEmpty()) writeIndex();
+        return false;
+    }
+
+    private static List<Element> allTypes(Set<? extends Element> roots) {
+        final List<Element> types = new ArrayList<>();
+        for (Element root : roots) {
+            if (root instanceof TypeElement) {
+                types.add(root);
+                types.addAll(allTypes(Set.copyOf(ElementFilter.typesIn(root.getEnclosedElements()))));
+            }
+        }
+        return types;
+    }
+
+    private Optional<Component> getComponent(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) return Optional.empty();
+        if (!isVisibleInPackage(type)) return Optional.empty();
+
+        final List<TypeElement> hierarchy = getHierarchy(type);
+        final List<VariableElement> fields = getInjectFields(hierarchy);
+        final List<ExecutableElement> methods = getInjectMethods(type, hierarchy);
+        final List<ExecutableElement> injectConstructors = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .filter(it -> it.getModifiers().contains(Modifier.PUBLIC) && isInject(it))
+                .toList();
+
+        final boolean hasInjectionPoint = !injectConstructors.isEmpty() || hierarchy.stream()
+                .flatMap(it -> it.getEnclosedElements().stream())
+                .anyMatch(InjectProcessor::isInject);
+        if (!hasInjectionPoint || injectConstructors.size() > 1) return Optional.empty();
+
+        final Optional<ExecutableElement> constructor = injectConstructors.stream().findFirst()
+                .or(() -> ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                        .filter(it -> it.getParameters().isEmpty())
+                        .findFirst());
+        if (constructor.isEmpty() || !isAccessible(type, constructor.get())) return Optional.empty();
+        if (!fields.stream().allMatch(it -> isAccessible(type, it) && !it.getModifiers().contains(Modifier.FINAL))) return Optional.empty();
+        if (!methods.stream().allMatch(it -> isAccessible(type, it))) return Optional.empty();
+        if (!dependencies(constructor.get(), fields, methods).map(Element::asType).allMatch(InjectProcessor::isRaw)) return Optional.empty();
+        if (dependencies(constructor.get(), fields, methods).anyMatch(InjectProcessor::isQualified)) return Optional.empty();
+
+        return Optional.of(new Component(type, constructor.get(), fields, methods));
+    }
+
+    /**
+     * Same rules as {@code InjectionPoints}: a concrete class with injection points, its own or inherited, and
+     * either a single public {@code @Inject} constructor or a no-arg one.
+     */
+    private boolean isBindable(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) return false;
+        if (!isVisibleInPackage(type)) return false;
+
+        final List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        final long injectConstructors = constructors.stream()
+                .filter(it -> it.getModifiers().contains(Modifier.PUBLIC) && isInject(it))
+                .count();
+        if (injectConstructors > 1) return false;
+        if (injectConstructors == 0 && constructors.stream().noneMatch(it -> it.getParameters().isEmpty())) return false;
+        return injectConstructors == 1 || getHierarchy(type).stream()
+                .flatMap(it -> it.getEnclosedElements().stream())
+                .anyMatch(InjectProcessor::isInject);
+    }
+
+    private String indexEntry(TypeElement type) {
+        final Set<String> interfaces = new LinkedHashSet<>();
+        collectInterfaces(type.asType(), interfaces);
+        return Stream.concat(Stream.of(binaryName(type)), interfaces.stream()).collect(Collectors.joining(" "));
+    }
+
+    private void collectInterfaces(TypeMirror type, Set<String> interfaces) {
+        for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+            final TypeElement element = (TypeElement) ((DeclaredType) supertype).asElement();
+            if (element.getKind() == ElementKind.INTERFACE && !isJdk(element)) interfaces.add(binaryName(element));
+            collectInterfaces(supertype, interfaces);
+        }
+    }
+
+    /**
+     * {@code Serializable}, {@code AutoCloseable}, ... are implemented by too many classes to be bound to any one of
+     * them.
+     */
+    private boolean isJdk(TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString().startsWith("java.");
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private void writeIndex() {
+        try (Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX).openWriter()) {
+            writer.write(String.join("\n", index) + "\n");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "cannot write " + INDEX + ": " + e.getMessage());
+        }
+    }
+
+    private static Stream<Element> dependencies(ExecutableElement constructor, List<VariableElement> fields, List<ExecutableElement> methods) {
+        return Stream.of(
+                        constructor.getParameters().stream(),
+                        fields.stream(),
+                        methods.stream().flatMap(it -> it.getParameters().stream()))
+                .flatMap(it -> it);
+    }
+
+    /**
+     * Generic dependencies, e.g. {@code Provider<T>}, are resolved by more than their erasure and left to reflection.
+     */
+    private static boolean isRaw(TypeMirror type) {
+        return !(type instanceof DeclaredType declared) || declared.getTypeArguments().isEmpty();
+    }
+
+    private List<TypeElement> getHierarchy(TypeElement type) {
+        final List<TypeElement> hierarchy = new ArrayList<>();
+        TypeMirror current = type.asType();
+        while (current.getKind() == TypeKind.DECLARED) {
+            final TypeElement element = (TypeElement) ((DeclaredType) current).asElement();
+            if (element.getQualifiedName().contentEquals(Object.class.getName())) break;
+            hierarchy.add(element);
+            current = element.getSuperclass();
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Same order as {@code InjectionPoints.getInjectFields}: the class itself first, then its supers.
+     */
+    private static List<VariableElement> getInjectFields(List<TypeElement> hierarchy) {
+        return hierarchy.stream()
+                .flatMap(it -> ElementFilter.fieldsIn(it.getEnclosedElements()).stream())
+                .filter(InjectProcessor::isInject)
+                .toList();
+    }
+
+    /**
+     * Same rules as {@code InjectionPoints.getInjectMethods}: supers before subs, an inject method
+     * overridden in a sub is only injected once, and not at all if the class itself overrides it without
+     * {@code @Inject}.
+     */
+    private List<ExecutableElement> getInjectMethods(TypeElement type, List<TypeElement> hierarchy) {
+        final List<ExecutableElement> ownMethods = ElementFilter.methodsIn(type.getEnclosedElements());
+        final List<ExecutableElement> methods = new ArrayList<>();
+        for (TypeElement current : hierarchy) {
+            for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                if (!isInject(method)) continue;
+                if (methods.stream().anyMatch(sub -> sameSignature(sub, method))) continue;
+                final List<ExecutableElement> overriding = ownMethods.stream().filter(it -> sameSignature(it, method)).toList();
+                if (!overriding.isEmpty() && overriding.stream().noneMatch(InjectProcessor::isInject)) continue;
+                methods.add(method);
+            }
+        }
+        Collections.reverse(methods);
+        return methods;
+    }
+
+    private boolean sameSignature(ExecutableElement one, ExecutableElement another) {
+        return one.getSimpleName().contentEquals(another.getSimpleName())
+                && erasures(one).equals(erasures(another));
+    }
+
+    private List<String> erasures(ExecutableElement method) {
+        return method.getParameters().stream().map(it -> erasure(it.asType())).toList();
+    }
+
+    String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * Qualifiers are annotation instances, which generated code has no way to build, so keys are left to reflection.
+     */
+    private static boolean isQualified(Element element) {
+        return element.getAnnotationMirrors().stream()
+                .anyMatch(it -> it.getAnnotationType().asElement().getAnnotationMirrors().stream()
+                        .anyMatch(meta -> ((TypeElement) meta.getAnnotationType().asElement()).getQualifiedName().contentEquals(QUALIFIER)));
+    }
+
+    private static boolean isInject(Element element) {
+        return element.getAnnotationMirrors().stream()
+                .anyMatch(it -> ((TypeElement) it.getAnnotationType().asElement()).getQualifiedName().contentEquals(INJECT));
+    }
+
+    private static boolean isVisibleInPackage(TypeElement type) {
+        Element current = type;
+        while (current instanceof TypeElement element) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) return false;
+            if (element.getNestingKind() == NestingKind.MEMBER && !element.getModifiers().contains(Modifier.STATIC)) return false;
+            if (element.getNestingKind() == NestingKind.LOCAL || element.getNestingKind() == NestingKind.ANONYMOUS) return false;
+            current = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * Whether the generated factory, living in the package of {@code component}, can use {@code member} directly.
+     */
+    private boolean isAccessible(TypeElement component, Element member) {
+        final Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)) return false;
+        if (modifiers.contains(Modifier.PUBLIC)) return isVisibleInPackage((TypeElement) member.getEnclosingElement());
+        return packageOf(member).equals(packageOf(component));
+    }
+
+    private PackageElement packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+    private void write(Component component) {
+        final TypeElement type = component.type();
+        final String packageName = packageOf(type).getQualifiedName().toString();
+        final String binaryName = binaryName(type);
+        final String factoryName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_') + FACTORY_SUFFIX;
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(packageName.isEmpty() ? factoryName : packageName + "." + factoryName, type)
+                .openWriter()) {
+            writer.write(new FactoryWriter(this, component, packageName, factoryName).toSource());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "cannot write " + factoryName + ": " + e.getMessage(), type);
+        }
+    }
+
+    record Component(TypeElement type, ExecutableElement constructor, List<VariableElement> fields, List<ExecutableElement> methods) {
+    }
+}
@@ -1,2 +1,3 @@
 rootProject.name = "TDD.di.container"
 
+include("processor")
@@ -0,0 +1,49 @@
+package org.boyu;
+
+import org.boyu.synthetic.SyntheticGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of a child context adding one instance binding on top of the generated graph of a few thousand
+ * bindings, which should not depend on the size of the parent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChildContextBenchmark {
+    private Context parent;
+    private Class<?> head;
+
+    @Setup
+    public void setUp() {
+        final ContextConfig config = new ContextConfig();
+        head = SyntheticGraph.bindGraph(config);
+        parent = config.getContext();
+    }
+
+    /** creating the child and getting its context */
+    @Benchmark
+    public Context getChildContext() {
+        final ContextConfig child = new ContextConfig(parent);
+        child.bind(String.class, "request");
+        return child.getContext();
+    }
+
+    /** the above, then resolving through the child both its own binding and one of the parent */
+    @Benchmark
+    public Object getChildContextAndResolve() {
+        final ContextConfig child = new ContextConfig(parent);
+        child.bind(String.class, "request");
+        final Context context = child.getContext();
+        context.require(String.class);
+        return context.require(head);
+    }
+}
@@ -0,0 +1,45 @@
+package org.boyu;
+
+import org.boyu.synthetic.SyntheticGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction cost of a component against the number of its constructor dependencies; {@code resolveAsync} is the
+ * overhead of constructing each dependency as its own task on the common pool, which pays off once they block.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FanOutBenchmark {
+    @Param({"1", "8", "32"})
+    int width;
+
+    private Context context;
+    private Class<?> component;
+
+    @Setup
+    public void setUp() {
+        final ContextConfig config = new ContextConfig();
+        component = SyntheticGraph.bindWide(config, width);
+        context = config.getContext();
+    }
+
+    @Benchmark
+    public Object resolve() {
+        return context.get(component).get();
+    }
+
+    @Benchmark
+    public Object resolveAsync() {
+        return context.getAsync(component).join();
+    }
+}
@@ -0,0 +1,43 @@
+package org.boyu;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Same as {@link ResolutionBenchmark}, for a bound instance, which has no dependencies, hence no depth: the lookup
+ * alone, allocating nothing for {@code require}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InstanceResolutionBenchmark {
+    public interface Service {
+    }
+
+    private Context context;
+
+    @Setup
+    public void setUp() {
+        final ContextConfig config = new ContextConfig();
+        config.bind(Service.class, new Service() {
+        });
+        context = config.getContext();
+    }
+
+    @Benchmark
+    public Object resolve() {
+        return context.get(Service.class).get();
+    }
+
+    @Benchmark
+    public Object require() {
+        return context.require(Service.class);
+    }
+}
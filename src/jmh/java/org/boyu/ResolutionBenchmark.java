@@ -0,0 +1,56 @@
+package org.boyu;
+
+import org.boyu.synthetic.SyntheticGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link Context#get(Class)} and {@link Context#require(Class)} along chains of {@code depth} components;
+ * the {@code gc} profiler reports the allocation per resolve ({@code gc.alloc.rate.norm}), which for {@code require}
+ * should be the components and their argument arrays alone up to {@value InjectionPlan.Node#MAX_RECURSION} deep, plus
+ * the explicit stack of the walk beyond, as at depth 128. {@link InstanceResolutionBenchmark} covers instances, which
+ * have no depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResolutionBenchmark {
+    @Param({"constructor", "field", "method"})
+    String injection;
+
+    @Param({"1", "16", "128"})
+    int depth;
+
+    private Context context;
+    private Class<?> head;
+
+    @Setup
+    public void setUp() {
+        final ContextConfig config = new ContextConfig();
+        head = switch (injection) {
+            case "constructor" -> SyntheticGraph.bindConstructorChain(config, depth);
+            case "field" -> SyntheticGraph.bindFieldChain(config, depth);
+            case "method" -> SyntheticGraph.bindMethodChain(config, depth);
+            default -> throw new IllegalArgumentException(injection);
+        };
+        context = config.getContext();
+    }
+
+    @Benchmark
+    public Object resolve() {
+        return context.get(head).get();
+    }
+
+    @Benchmark
+    public Object require() {
+        return context.require(head);
+    }
+}
@@ -0,0 +1,76 @@
+package org.boyu;
+
+import org.boyu.synthetic.SyntheticGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost on the generated graph of a few thousand bindings with shared dependencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationBenchmark {
+    private ContextConfig config;
+    private Class<?> head;
+
+    @Setup
+    public void setUp() {
+        config = new ContextConfig();
+        head = SyntheticGraph.bindGraph(config);
+    }
+
+    /**
+     * Bindings registered but never validated, afresh for every invocation: per-invocation setup is fine here, as
+     * getting the context of a few thousand bindings takes far longer than the timestamps around it.
+     */
+    @State(Scope.Thread)
+    public static class Unvalidated {
+        private ContextConfig config;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            config = new ContextConfig();
+            SyntheticGraph.bindGraph(config);
+        }
+    }
+
+    /** validating and compiling already registered bindings */
+    @Benchmark
+    public Context getContext(Unvalidated unvalidated) {
+        return unvalidated.config.getContext();
+    }
+
+    /** compiling already registered bindings, validated before, so nothing is validated again */
+    @Benchmark
+    public Context getContextUnchanged() {
+        return config.getContext();
+    }
+
+    /** replacing one binding nothing depends on, so only that binding is validated again, then compiling */
+    @Benchmark
+    public Context rebindAndGetContext() {
+        rebind(head);
+        return config.getContext();
+    }
+
+    private <T> void rebind(Class<T> type) {
+        config.bind(type, type);
+    }
+
+    /** registering every binding, including scanning each class, then getting the context */
+    @Benchmark
+    public Context bindAndGetContext() {
+        final ContextConfig fresh = new ContextConfig();
+        SyntheticGraph.bindGraph(fresh);
+        return fresh.getContext();
+    }
+}
@@ -0,0 +1,58 @@
+package org.boyu;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * The components listed in the {@value #LOCATION} files which {@code org.boyu.processor.InjectProcessor} generates,
+ * one per jar or class directory: a line per class the container can bind, its binary name followed by those of
+ * the interfaces it implements, separated by spaces. Reading the index touches no class, so only the classes
+ * actually bound get loaded.
+ */
+final class ComponentIndex {
+    static final String LOCATION = "META-INF/di/components.idx";
+
+    private ComponentIndex() {
+    }
+
+    /**
+     * Reads every index {@code loader} sees, each in a single read.
+     */
+    static List<Entry> read(ClassLoader loader) {
+        final List<Entry> entries = new ArrayList<>();
+        try {
+            final Enumeration<URL> indexes = loader.getResources(LOCATION);
+            while (indexes.hasMoreElements()) {
+                try (InputStream in = indexes.nextElement().openStream()) {
+                    entries.addAll(parse(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return entries;
+    }
+
+    static List<Entry> parse(String index) {
+        return index.lines()
+                .map(String::strip)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(line -> line.split(" +"))
+                .map(names -> new Entry(names[0], List.of(Arrays.copyOfRange(names, 1, names.length))))
+                .toList();
+    }
+
+    /**
+     * @param impl       the binary name of a class the container can bind
+     * @param interfaces the binary names of all the interfaces it implements, directly or not, but the JDK's
+     */
+    record Entry(String impl, List<String> interfaces) {
+    }
+}
@@ -1,9 +1,39 @@
 package org.boyu;
 
+import org.boyu.exception.DependencyNotFoundException;
+
 import java.util.List;
+import java.util.Optional;
 
-interface ComponentProvider<T> {
+public interface ComponentProvider<T> {
     T get(Context context);
 
-    List<Class<?>> getDependencies();
+    /**
+     * @return the keys of all dependencies as declared: of components, or of {@link jakarta.inject.Provider} and
+     * {@link Lazy} of them, each with the qualifier of its injection point
+     */
+    List<Key<?>> getDependencies();
+
+    /**
+     * Creates the component from dependencies which are already resolved, given in the same order as
+     * {@link #getDependencies()}. The compiled plan of {@link ContextConfig#getContext()} goes through here,
+     * so no {@link Context} lookups happen while constructing.
+     */
+    default T create(Object[] dependencies) {
+        final List<Key<?>> keys = getDependencies();
+        return get(new Context() {
+            @Override
+            public <D> Optional<D> get(Key<D> key) {
+                final int index = keys.indexOf(key);
+                return index < 0 ? Optional.empty() : Optional.ofNullable((D) dependencies[index]);
+            }
+
+            @Override
+            public <D> D require(Key<D> key) {
+                final int index = keys.indexOf(key);
+                if (index < 0) throw new DependencyNotFoundException(null, key);
+                return (D) dependencies[index];
+            }
+        });
+    }
 }
@@ -0,0 +1,20 @@
+package org.boyu;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("org.boyu.Construction")
+@Label("Component Construction")
+@Category("DI Container")
+@Description("Creating one instance of a binding, without creating its dependencies")
+class ConstructionEvent extends jdk.jfr.Event {
+    @Label("Binding")
+    String binding;
+
+    @Label("Injection Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long injectionNanos;
+}
@@ -1,151 +1,47 @@
 package org.boyu;
 
-import jakarta.inject.Inject;
-import org.apache.commons.collections4.CollectionUtils;
 import org.boyu.exception.IllegalComponentException;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Parameter;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static org.boyu.exception.IllegalComponentException.Reason.ABSTRACT_CLASS_NOT_ALLOWED;
-import static org.boyu.exception.IllegalComponentException.Reason.MULTI_INJECT_CONSTRUCTORS;
-import static org.boyu.exception.IllegalComponentException.Reason.NO_PROPER_CONSTRUCTOR_FOUND;
 
 class ConstructionInjectionProvider<T> implements ComponentProvider<T> {
-    private final Constructor<T> injectConstructor;
-    private final List<Field> injectFields;
-    private final List<Method> injectMethods;
+    private final InjectionPoints<T> injectionPoints;
 
     public ConstructionInjectionProvider(Class<T> impl) {
         if (Modifier.isAbstract(impl.getModifiers())) {
             throw new IllegalComponentException(ABSTRACT_CLASS_NOT_ALLOWED);
         }
-        this.injectConstructor = getConstructor(impl);
-        this.injectFields = getInjectFields(impl);
-        this.injectMethods = getInjectMethods(impl);
+        this.injectionPoints = InjectionPoints.of(impl);
+    }
+
+    ConstructionInjectionProvider(InjectionPoints<T> injectionPoints) {
+        this.injectionPoints = injectionPoints;
     }
 
     @Override
     public T get(Context context) {
-        try {
-            final Object[] objects = Arrays.stream(injectConstructor.getParameters())
-                    .map(Parameter::getType)
-                    .map(typeKey -> context.get(typeKey).get())
-                    .toArray();
-            final T instance = injectConstructor.newInstance(objects);
-
-            for (Field field : injectFields) {
-                final Object fieldInstance = context.get(field.getType()).get();
-                field.set(instance, fieldInstance);
-            }
-
-            for (Method method : injectMethods) {
-                final Object[] args = Arrays.stream(method.getParameterTypes())
-                        .map(clz -> context.get(clz).get())
-                        .toArray();
-                method.invoke(instance, args);
-            }
-
-            return instance;
-        } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
-            throw new RuntimeException(e);
+        final List<Key<?>> dependencies = getDependencies();
+        final Object[] args = new Object[dependencies.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = InjectionKind.resolve(context, dependencies.get(i));
         }
+        return create(args);
     }
 
     @Override
-    public List<Class<?>> getDependencies() {
-        final List<Class<?>> depsInInjectConstructor = Arrays.stream(injectConstructor.getParameters())
-                .map(Parameter::getType)
-                .collect(Collectors.toList());
-        final List<Class<?>> depsInInjectFields = injectFields.stream()
-                .map(Field::getType)
-                .collect(Collectors.toList());
-
-        final List<Class<?>> depsInInjectMethods = injectMethods.stream()
-                .map(it -> Arrays.stream(it.getParameterTypes()).toList())
-                .flatMap(Collection::stream)
-                .toList();
-
-        return Stream.concat(
-                        Stream.concat(depsInInjectConstructor.stream(), depsInInjectFields.stream()),
-                        depsInInjectMethods.stream())
-                .toList();
-    }
-
-    private static <U> Constructor<U> getConstructor(Class<U> impl) {
-        final List<Constructor<?>> injectConstructors = Arrays.stream(impl.getConstructors())
-                .filter(it -> it.isAnnotationPresent(Inject.class))
-                .toList();
-
-        if (injectConstructors.size() > 1)
-            throw new IllegalComponentException(MULTI_INJECT_CONSTRUCTORS.getValue());
-
-        return (Constructor<U>) injectConstructors.stream()
-                .findFirst()
-                .orElseGet(() -> {
-                    try {
-                        return impl.getDeclaredConstructor();
-                    } catch (NoSuchMethodException e) {
-                        throw new IllegalComponentException(NO_PROPER_CONSTRUCTOR_FOUND.getValue());
-                    }
-                });
+    public T create(Object[] dependencies) {
+        return injectionPoints.getInstantiator().create(dependencies);
     }
 
-    private static <T> List<Field> getInjectFields(Class<T> impl) {
-        List<Field> injectFields = new ArrayList<>();
-
-        Class<?> current = impl;
-        while (current != Object.class) {
-            final List<Field> list = Arrays.stream(current.getDeclaredFields())
-                    .filter(it -> it.isAnnotationPresent(Inject.class))
-                    .toList();
-            injectFields.addAll(list);
-
-            current = current.getSuperclass();
-        }
-
-        return injectFields;
+    @Override
+    public List<Key<?>> getDependencies() {
+        return injectionPoints.getDependencies();
     }
 
-    private static <T> List<Method> getInjectMethods(Class<T> impl) {
-        List<Method> methods = new ArrayList<>();
-        Class<?> current = impl;
-        while (current != Object.class) {
-            final List<Method> methodsOfCurrentClass = Arrays.stream(current.getDeclaredMethods())
-                    .filter(it -> it.isAnnotationPresent(Inject.class))
-                    .filter(sup -> methods.stream().noneMatch(sub -> sup.getName().equals(sub.getName()) && Arrays.equals(sup.getParameterTypes(), sub.getParameterTypes())))
-                    .filter(sup -> {
-                        final List<Method> sameMethodsInMostSub = Arrays.stream(impl.getDeclaredMethods())
-                                .filter(mostSub -> mostSub.getName().equals(sup.getName()))
-                                .filter(mostSub -> Arrays.equals(mostSub.getParameterTypes(), sup.getParameterTypes()))
-                                .toList();
-
-                        if (CollectionUtils.isEmpty(sameMethodsInMostSub)) {
-                            return true;
-                        }
-
-                        final boolean subExplicitlyUnWantInjection = sameMethodsInMostSub.stream()
-                                .noneMatch(m -> m.isAnnotationPresent(Inject.class));
-
-                        return !subExplicitlyUnWantInjection;
-                    })
-                    .toList();
-            methods.addAll(methodsOfCurrentClass);
-
-            current = current.getSuperclass();
-        }
-        Collections.reverse(methods);
-        return methods;
+    Instantiator<T> getInstantiator() {
+        return injectionPoints.getInstantiator();
     }
 }
@@ -0,0 +1,189 @@
+package org.boyu;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * The validated dependency graph of the bindings of a {@link ContextConfig}, got by {@link ContextConfig#getGraph()}:
+ * one node per binding, one edge from a component to each component it depends on. Edges through a
+ * {@link jakarta.inject.Provider} or {@link Lazy} are {@link Edge#deferred() deferred}: they do not take part in the
+ * depth, the topological order nor the critical path, as the dependency need not exist before the component.
+ * <p>
+ * A child config's graph holds its own bindings only; dependencies on the parent are left out.
+ */
+public final class ContainerGraph {
+    private final List<Key<?>> nodes;
+    private final List<Edge> edges;
+    private final Map<Key<?>, List<Edge>> outgoing = new HashMap<>();
+    private final Map<Key<?>, List<Edge>> incoming = new HashMap<>();
+    private final Map<Key<?>, Integer> depths = new HashMap<>();
+
+    /**
+     * @param order every key of {@code providers}, each after its direct dependencies, as checked by
+     *              {@link DependencyChecker}
+     */
+    ContainerGraph(Map<Key<?>, ComponentProvider<?>> providers, List<Key<?>> order) {
+        this.nodes = List.copyOf(order);
+        final List<Edge> all = new ArrayList<>();
+        for (Key<?> node : nodes) {
+            final Set<Edge> own = new LinkedHashSet<>();
+            for (Key<?> type : providers.get(node).getDependencies()) {
+                final Key<?> dependency = InjectionKind.componentOf(type);
+                if (providers.containsKey(dependency)) own.add(new Edge(node, dependency, InjectionKind.of(type).isDeferred()));
+            }
+            outgoing.put(node, List.copyOf(own));
+            incoming.put(node, new ArrayList<>());
+            all.addAll(own);
+        }
+        all.forEach(edge -> incoming.get(edge.to()).add(edge));
+        incoming.replaceAll((node, edges) -> List.copyOf(edges));
+        this.edges = List.copyOf(all);
+        for (Key<?> node : nodes) {
+            depths.put(node, direct(node).stream().mapToInt(it -> depths.get(it) + 1).max().orElse(0));
+        }
+    }
+
+    /**
+     * @return every component bound, in topological order: each after everything it directly depends on
+     */
+    public List<Key<?>> getNodes() {
+        return nodes;
+    }
+
+    public List<Edge> getEdges() {
+        return edges;
+    }
+
+    public List<Edge> getDependencies(Key<?> node) {
+        return outgoing.getOrDefault(node, List.of());
+    }
+
+    public List<Edge> getDependents(Key<?> node) {
+        return incoming.getOrDefault(node, List.of());
+    }
+
+    public int getFanOut(Key<?> node) {
+        return getDependencies(node).size();
+    }
+
+    public int getFanIn(Key<?> node) {
+        return getDependents(node).size();
+    }
+
+    /**
+     * @return the length of the longest chain of direct dependencies below {@code node}, 0 if it has none
+     */
+    public int getDepth(Key<?> node) {
+        return depths.getOrDefault(node, 0);
+    }
+
+    /**
+     * The chain of direct dependencies which takes longest to construct, given how long each component takes on its
+     * own, e.g. as measured by {@link #getCriticalPath(ContainerMetrics)}. Even with every independent component
+     * constructed in parallel, as {@link ContextConfig#getContext(java.util.concurrent.Executor)} does, startup
+     * takes at least as long as this path: it is where making components lazy or faster pays off.
+     */
+    public Path getCriticalPath(ToLongFunction<Key<?>> nanos) {
+        final Map<Key<?>, Long> finished = new HashMap<>();
+        final Map<Key<?>, Key<?>> slowest = new HashMap<>();
+        Key<?> last = null;
+        for (Key<?> node : nodes) {
+            long start = 0;
+            for (Key<?> dependency : direct(node)) {
+                if (finished.get(dependency) >= start) {
+                    start = finished.get(dependency);
+                    slowest.put(node, dependency);
+                }
+            }
+            finished.put(node, start + nanos.applyAsLong(node));
+            if (last == null || finished.get(node) > finished.get(last)) last = node;
+        }
+        if (last == null) return new Path(List.of(), 0);
+
+        final List<Key<?>> path = new ArrayList<>();
+        for (Key<?> node = last; node != null; node = slowest.get(node)) {
+            path.add(node);
+        }
+        Collections.reverse(path);
+        return new Path(List.copyOf(path), finished.get(last));
+    }
+
+    /**
+     * Takes the mean construction time recorded per component, none for those never created.
+     */
+    public Path getCriticalPath(ContainerMetrics metrics) {
+        return getCriticalPath(key -> metrics.of(key)
+                .map(it -> it.getTotalConstructionNanos() / it.getInstancesCreated())
+                .orElse(0L));
+    }
+
+    /**
+     * Renders the graph in Graphviz DOT, deferred edges dashed.
+     */
+    public String toDot() {
+        final StringBuilder dot = new StringBuilder("digraph container {\n");
+        nodes.forEach(node -> dot.append("  ").append(quote(node)).append(";\n"));
+        edges.forEach(edge -> dot.append("  ").append(quote(edge.from())).append(" -> ").append(quote(edge.to()))
+                .append(edge.deferred() ? " [style=dashed]" : "").append(";\n"));
+        return dot.append("}\n").toString();
+    }
+
+    /**
+     * Renders the graph as {@code {"nodes": [{"key", "depth", "fanIn", "fanOut"}...], "edges": [{"from", "to",
+     * "deferred"}...]}}, nodes in topological order.
+     */
+    public String toJson() {
+        final List<String> jsonNodes = nodes.stream()
+                .map(node -> "{\"key\":" + quote(node) + ",\"depth\":" + getDepth(node)
+                        + ",\"fanIn\":" + getFanIn(node) + ",\"fanOut\":" + getFanOut(node) + "}")
+                .toList();
+        final List<String> jsonEdges = edges.stream()
+                .map(edge -> "{\"from\":" + quote(edge.from()) + ",\"to\":" + quote(edge.to()) + ",\"deferred\":" + edge.deferred() + "}")
+                .toList();
+        return "{\"nodes\":[" + String.join(",", jsonNodes) + "],\"edges\":[" + String.join(",", jsonEdges) + "]}";
+    }
+
+    private List<Key<?>> direct(Key<?> node) {
+        return getDependencies(node).stream().filter(it -> !it.deferred()).<Key<?>>map(Edge::to).toList();
+    }
+
+    /**
+     * Escapes as a string of both DOT and JSON.
+     */
+    private static String quote(Key<?> key) {
+        final StringBuilder quoted = new StringBuilder("\"");
+        for (char c : key.toString().toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                default -> {
+                    if (c < 0x20) quoted.append(String.format("\\u%04x", (int) c));
+                    else quoted.append(c);
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * {@code from} depends on {@code to}.
+     *
+     * @param deferred whether through a {@link jakarta.inject.Provider} or {@link Lazy}
+     */
+    public record Edge(Key<?> from, Key<?> to, boolean deferred) {
+    }
+
+    /**
+     * @param components from the first to construct to the last, each depending directly on the one before
+     * @param nanos      how long constructing them one after another takes
+     */
+    public record Path(List<Key<?>> components, long nanos) {
+    }
+}
@@ -0,0 +1,283 @@
+package org.boyu;
+
+import jakarta.inject.Scope;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * A validated graph exported at build time, so that startup can skip scanning and validating it: the injection
+ * points and scope of every bound implementation class, the topological order of the bindings, and a fingerprint of
+ * what was bound to what.
+ * <p>
+ * Written by {@link #write(ContextConfig, Path)} and used through {@link ContextConfig#useImage(Path)}. The file is
+ * memory-mapped and checked against a CRC32 of its content; each class against a CRC32 of its class file and those
+ * of its superclasses, as recorded when written. A class that changed since is scanned as usual, and validation
+ * only skipped if the bindings made are exactly those written and none of the classes bound changed.
+ */
+public final class ContainerImage {
+    private static final int MAGIC = 0x44494D47;
+    private static final int FORMAT_VERSION = 1;
+    private static final Map<String, Class<?>> PRIMITIVES = Map.of(
+            "boolean", boolean.class, "byte", byte.class, "char", char.class, "short", short.class,
+            "int", int.class, "long", long.class, "float", float.class, "double", double.class);
+
+    private final Map<String, Entry> entries;
+    private final long fingerprint;
+    private final List<String> order;
+    /** whether each class looked up is the version written, read and checksummed once per image */
+    private final Map<Class<?>, Boolean> upToDate = new ConcurrentHashMap<>();
+
+    private ContainerImage(Map<String, Entry> entries, long fingerprint, List<String> order) {
+        this.entries = entries;
+        this.fingerprint = fingerprint;
+        this.order = order;
+    }
+
+    /**
+     * Validates the bindings of {@code config} and writes them to {@code file}; those of a child config may depend on
+     * what its parent binds.
+     *
+     * @throws org.boyu.exception.DependencyNotFoundException       if the bindings are not valid
+     * @throws org.boyu.exception.CyclicDependenciesFoundException if the bindings are not valid
+     */
+    public static void write(ContextConfig config, Path file) throws IOException {
+        final Map<Key<?>, ComponentProvider<?>> providers = config.getProviders();
+        final Map<Key<?>, Class<?>> implementations = config.getImplementations();
+        final List<Key<?>> order = DependencyChecker.check(providers, providers.keySet(), config.inheritedBy(providers));
+
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(payload);
+        out.writeLong(fingerprint(providers, implementations));
+        final List<Class<?>> classes = implementations.values().stream().distinct().toList();
+        out.writeInt(classes.size());
+        for (Class<?> impl : classes) {
+            final InjectionPoints<?> points = InjectionPoints.of(impl);
+            writeString(out, impl.getName());
+            out.writeLong(classVersion(impl));
+            writeString(out, Arrays.stream(impl.getAnnotations())
+                    .map(Annotation::annotationType)
+                    .filter(it -> it.isAnnotationPresent(Scope.class))
+                    .map(Class::getName)
+                    .findFirst().orElse(""));
+            writeTypes(out, points.getConstructor().getParameterTypes());
+            out.writeInt(points.getFields().size());
+            for (Field field : points.getFields()) {
+                writeString(out, field.getDeclaringClass().getName());
+                writeString(out, field.getName());
+            }
+            out.writeInt(points.getMethods().size());
+            for (Method method : points.getMethods()) {
+                writeString(out, method.getDeclaringClass().getName());
+                writeString(out, method.getName());
+                writeTypes(out, method.getParameterTypes());
+            }
+        }
+        out.writeInt(order.size());
+        for (Key<?> key : order) {
+            writeString(out, key.toString());
+        }
+        out.flush();
+
+        final CRC32 checksum = new CRC32();
+        checksum.update(payload.toByteArray());
+        try (DataOutputStream header = new DataOutputStream(Files.newOutputStream(file))) {
+            header.writeInt(MAGIC);
+            header.writeInt(FORMAT_VERSION);
+            header.writeLong(checksum.getValue());
+            payload.writeTo(header);
+        }
+    }
+
+    /**
+     * @return the image in {@code file}, or empty if there is none, or it is of another format or corrupt
+     */
+    static Optional<ContainerImage> read(Path file) {
+        if (!Files.isRegularFile(file)) return Optional.empty();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 16 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) return Optional.empty();
+            final long expected = buffer.getLong();
+            final CRC32 checksum = new CRC32();
+            checksum.update(buffer.duplicate());
+            if (checksum.getValue() != expected) return Optional.empty();
+
+            final long fingerprint = buffer.getLong();
+            final int classCount = buffer.getInt();
+            final Map<String, Entry> entries = new HashMap<>();
+            for (int i = 0; i < classCount; i++) {
+                final String name = readString(buffer);
+                final long version = buffer.getLong();
+                final String scope = readString(buffer);
+                final List<String> constructor = readStrings(buffer);
+                final List<Member> fields = new ArrayList<>();
+                for (int count = buffer.getInt(); count > 0; count--) {
+                    fields.add(new Member(readString(buffer), readString(buffer), List.of()));
+                }
+                final List<Member> methods = new ArrayList<>();
+                for (int count = buffer.getInt(); count > 0; count--) {
+                    methods.add(new Member(readString(buffer), readString(buffer), readStrings(buffer)));
+                }
+                entries.put(name, new Entry(version, scope, constructor, fields, methods));
+            }
+            return Optional.of(new ContainerImage(entries, fingerprint, readStrings(buffer)));
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the injection points and scope recorded for {@code impl}, or empty if it is not in the image or has
+     * changed since
+     */
+    <T> Optional<Resolved<T>> resolve(Class<T> impl) {
+        if (!isUpToDate(impl)) return Optional.empty();
+        final Entry entry = entries.get(impl.getName());
+        try {
+            final ClassLoader loader = impl.getClassLoader();
+            final Constructor<T> constructor = impl.getDeclaredConstructor(classesOf(entry.constructor(), loader));
+            final List<Field> fields = new ArrayList<>();
+            for (Member field : entry.fields()) {
+                fields.add(Class.forName(field.declaringClass(), false, loader).getDeclaredField(field.name()));
+            }
+            final List<Method> methods = new ArrayList<>();
+            for (Member method : entry.methods()) {
+                methods.add(Class.forName(method.declaringClass(), false, loader)
+                        .getDeclaredMethod(method.name(), classesOf(method.parameterTypes(), loader)));
+            }
+            final Optional<Class<? extends Annotation>> scope = entry.scope().isEmpty()
+                    ? Optional.empty()
+                    : Optional.of(Class.forName(entry.scope(), false, loader).asSubclass(Annotation.class));
+            return Optional.of(new Resolved<>(InjectionPoints.of(constructor, fields, methods), scope));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return whether {@code providers} bind exactly what was bound when written, to classes unchanged since, so they
+     * are valid as well
+     */
+    boolean isGraphOf(Map<Key<?>, ComponentProvider<?>> providers, Map<Key<?>, Class<?>> implementations) {
+        return fingerprint == fingerprint(providers, implementations)
+                && implementations.values().stream().distinct().allMatch(this::isUpToDate);
+    }
+
+    private boolean isUpToDate(Class<?> impl) {
+        return upToDate.computeIfAbsent(impl, type -> {
+            final Entry entry = entries.get(type.getName());
+            return entry != null && entry.version() == classVersion(type);
+        });
+    }
+
+    /**
+     * @return the keys of {@code providers}, in the order written; only meaningful if {@link #isGraphOf} them
+     */
+    List<Key<?>> orderOf(Map<Key<?>, ComponentProvider<?>> providers) {
+        final Map<String, Key<?>> keys = new HashMap<>();
+        providers.keySet().forEach(key -> keys.put(key.toString(), key));
+        return order.stream().<Key<?>>map(keys::get).toList();
+    }
+
+    /**
+     * Stays the same across runs, unlike hash codes of classes: combines what every key is bound to, in any order.
+     */
+    private static long fingerprint(Map<Key<?>, ComponentProvider<?>> providers, Map<Key<?>, Class<?>> implementations) {
+        long fingerprint = providers.size();
+        for (Map.Entry<Key<?>, ComponentProvider<?>> binding : providers.entrySet()) {
+            final Class<?> impl = implementations.get(binding.getKey());
+            final String source = impl != null ? impl.getName() : binding.getValue().getDependencies().toString();
+            fingerprint += mix((binding.getKey() + "=" + source).hashCode());
+        }
+        return fingerprint;
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * @return a CRC32 of the class files of {@code type} and its superclasses, or -1 if any cannot be read
+     */
+    private static long classVersion(Class<?> type) {
+        final CRC32 checksum = new CRC32();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            final String name = current.getName();
+            try (InputStream in = current.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+                if (in == null) return -1;
+                checksum.update(in.readAllBytes());
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+        return checksum.getValue();
+    }
+
+    private static Class<?>[] classesOf(List<String> names, ClassLoader loader) throws ClassNotFoundException {
+        final Class<?>[] classes = new Class<?>[names.size()];
+        for (int i = 0; i < classes.length; i++) {
+            final Class<?> primitive = PRIMITIVES.get(names.get(i));
+            classes[i] = primitive != null ? primitive : Class.forName(names.get(i), false, loader);
+        }
+        return classes;
+    }
+
+    private static void writeTypes(DataOutputStream out, Class<?>[] types) throws IOException {
+        out.writeInt(types.length);
+        for (Class<?> type : types) {
+            writeString(out, type.getName());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static List<String> readStrings(ByteBuffer buffer) {
+        final List<String> strings = new ArrayList<>();
+        for (int count = buffer.getInt(); count > 0; count--) {
+            strings.add(readString(buffer));
+        }
+        return strings;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    record Resolved<T>(InjectionPoints<T> injectionPoints, Optional<Class<? extends Annotation>> scope) {
+    }
+
+    private record Entry(long version, String scope, List<String> constructor, List<Member> fields, List<Member> methods) {
+    }
+
+    private record Member(String declaringClass, String name, List<String> parameterTypes) {
+    }
+}
@@ -0,0 +1,153 @@
+package org.boyu;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * What the contexts of a {@link ContextConfig} spent their time on, recorded once
+ * {@link ContextConfig#enableMetrics()} is called: per binding, how many instances were created and how long that
+ * took, and how long validating and compiling the graph took. Each is also emitted as a JDK Flight Recorder event,
+ * {@code org.boyu.Construction} and {@code org.boyu.Validation}.
+ * <p>
+ * Contexts got before metrics are enabled, like any context of a config without them, record nothing and pay no
+ * more than a null check per component created.
+ */
+public final class ContainerMetrics {
+    private final Map<Key<?>, Binding> bindings = new ConcurrentHashMap<>();
+    private final LongAdder validations = new LongAdder();
+    private final LongAdder validationNanos = new LongAdder();
+    private final LongAccumulator maxValidationNanos = new LongAccumulator(Math::max, 0);
+
+    ContainerMetrics() {
+    }
+
+    /**
+     * @return the metrics of {@code key}, if any of its instances was created yet
+     */
+    public Optional<Binding> of(Key<?> key) {
+        return Optional.ofNullable(bindings.get(key)).filter(it -> it.getInstancesCreated() > 0);
+    }
+
+    public Optional<Binding> of(Class<?> type) {
+        return of(Key.of(type));
+    }
+
+    /**
+     * @return the metrics of every binding compiled so far, live
+     */
+    public Map<Key<?>, Binding> getBindings() {
+        return Collections.unmodifiableMap(bindings);
+    }
+
+    /**
+     * @return how many times a graph, or in {@link ContextConfig.Mode#LAZY} mode the part of it first used, was
+     * validated and compiled
+     */
+    public long getValidations() {
+        return validations.sum();
+    }
+
+    public long getTotalValidationNanos() {
+        return validationNanos.sum();
+    }
+
+    public long getMaxValidationNanos() {
+        return maxValidationNanos.get();
+    }
+
+    Binding binding(Key<?> key) {
+        return bindings.computeIfAbsent(key, Binding::new);
+    }
+
+    <R> R validate(int size, Supplier<R> validation) {
+        final ValidationEvent event = new ValidationEvent();
+        event.begin();
+        final long start = System.nanoTime();
+        final R result = validation.get();
+        final long elapsed = System.nanoTime() - start;
+        validations.increment();
+        validationNanos.add(elapsed);
+        maxValidationNanos.accumulate(elapsed);
+        event.end();
+        if (event.shouldCommit()) {
+            event.bindings = size;
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Creation metrics of one binding. Construction time covers the constructor, fields and methods of the
+     * component itself, not creating its dependencies; injection time is the part of it spent setting
+     * {@code @Inject} fields and in {@code @Inject} methods, which components built by generated factories or bound
+     * to instances do not report separately.
+     */
+    public static final class Binding {
+        private final Key<?> key;
+        private final LongAdder created = new LongAdder();
+        private final LongAdder constructionNanos = new LongAdder();
+        private final LongAccumulator maxConstructionNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder injectionNanos = new LongAdder();
+
+        private Binding(Key<?> key) {
+            this.key = key;
+        }
+
+        public Key<?> getKey() {
+            return key;
+        }
+
+        public long getInstancesCreated() {
+            return created.sum();
+        }
+
+        public long getTotalConstructionNanos() {
+            return constructionNanos.sum();
+        }
+
+        public long getMaxConstructionNanos() {
+            return maxConstructionNanos.get();
+        }
+
+        public long getInjectionNanos() {
+            return injectionNanos.sum();
+        }
+
+        /**
+         * Creates through {@code instantiator} if given, so injection can be timed apart, otherwise through
+         * {@code provider}.
+         */
+        <T> T create(ComponentProvider<T> provider, Instantiator<T> instantiator, Object[] dependencies) {
+            final ConstructionEvent event = new ConstructionEvent();
+            event.begin();
+            final long start = System.nanoTime();
+            final T instance;
+            long injecting = 0;
+            if (instantiator == null) {
+                instance = provider.create(dependencies);
+            } else {
+                instance = instantiator.construct(dependencies);
+                final long injectStart = System.nanoTime();
+                instantiator.inject(instance, dependencies);
+                injecting = System.nanoTime() - injectStart;
+            }
+            final long elapsed = System.nanoTime() - start;
+            created.increment();
+            constructionNanos.add(elapsed);
+            maxConstructionNanos.accumulate(elapsed);
+            injectionNanos.add(injecting);
+            event.end();
+            if (event.shouldCommit()) {
+                event.binding = key.toString();
+                event.injectionNanos = injecting;
+                event.commit();
+            }
+            return instance;
+        }
+    }
+}
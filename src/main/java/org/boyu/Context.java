@@ -1,7 +1,98 @@
 package org.boyu;
 
+import org.boyu.exception.DependencyNotFoundException;
+
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+public interface Context extends AutoCloseable {
+    <T> Optional<T> get(Key<T> key);
+
+    default <T> Optional<T> get(Class<T> typeKey) {
+        return get(Key.of(typeKey));
+    }
+
+    /**
+     * Like {@link #get(Key)}, but without wrapping the component, which is what injection goes through.
+     *
+     * @throws DependencyNotFoundException if nothing is bound to {@code key}
+     */
+    default <T> T require(Key<T> key) {
+        return get(key).orElseThrow(() -> new DependencyNotFoundException(null, key));
+    }
+
+    default <T> T require(Class<T> typeKey) {
+        return require(Key.of(typeKey));
+    }
+
+    /**
+     * Resolves {@code key} on {@code executor}. Contexts got from {@link ContextConfig} also resolve the
+     * dependencies of a component concurrently, each as its own task, and construct the component once they are all
+     * done, so a component with blocking dependencies takes about as long as the slowest of them, not their sum.
+     * Blocking work is best given an executor of its own rather than the common pool.
+     *
+     * @return the component, or a future failed with what resolving it threw, e.g. {@link DependencyNotFoundException}
+     */
+    default <T> CompletableFuture<T> getAsync(Key<T> key, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> require(key), executor);
+    }
+
+    default <T> CompletableFuture<T> getAsync(Key<T> key) {
+        return getAsync(key, ForkJoinPool.commonPool());
+    }
+
+    default <T> CompletableFuture<T> getAsync(Class<T> typeKey, Executor executor) {
+        return getAsync(Key.of(typeKey), executor);
+    }
+
+    default <T> CompletableFuture<T> getAsync(Class<T> typeKey) {
+        return getAsync(Key.of(typeKey));
+    }
+
+    /**
+     * Borrows the component bound to {@code key} for as long as the lease stays open. A {@link Pooled} component
+     * goes back to its pool when the lease is closed, to be handed out again; any other is merely released.
+     *
+     * @throws DependencyNotFoundException if nothing is bound to {@code key}
+     */
+    default <T> Lease<T> lease(Key<T> key) {
+        return new Lease<>(require(key), null);
+    }
+
+    default <T> Lease<T> lease(Class<T> typeKey) {
+        return lease(Key.of(typeKey));
+    }
+
+    /**
+     * Starts a unit of work, e.g. for one request, holding its own {@link RequestScoped} components until closed.
+     * Opening one costs an object and no registration anywhere. Contexts with no such components may hand out a mere
+     * view of themselves.
+     */
+    default UnitOfWork openUnitOfWork() {
+        return new UnitOfWork() {
+            @Override
+            public <T> Optional<T> get(Key<T> key) {
+                return Context.this.get(key);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Tears down the components this context owns, invoking their {@code @PreDestroy} methods, each after those of
+     * everything depending on it; components independent of each other are torn down concurrently on
+     * {@code executor}. Closing again does nothing.
+     */
+    default void close(Executor executor) {
+    }
 
-public interface Context {
-    <T> Optional<T> get(Class<T> typeKey);
+    @Override
+    default void close() {
+        close(ForkJoinPool.commonPool());
+    }
 }
@@ -1,53 +1,395 @@
 package org.boyu;
 
-import org.boyu.exception.CyclicDependenciesFoundException;
-import org.boyu.exception.DependencyNotFoundException;
+import jakarta.inject.Scope;
+import jakarta.inject.Singleton;
+import org.boyu.exception.IllegalComponentException;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import static org.boyu.exception.IllegalComponentException.Reason.MULTI_SCOPES;
+import static org.boyu.exception.IllegalComponentException.Reason.NOT_MULTIBINDING;
+import static org.boyu.exception.IllegalComponentException.Reason.UNKNOWN_SCOPE;
+
+/**
+ * Collects bindings and builds {@link Context}s from them; meant to be set up from a single thread.
+ */
 public class ContextConfig {
-    private final Map<Class<?>, ComponentProvider<?>> providers = new HashMap<>();
+    private final Map<Key<?>, ComponentProvider<?>> providers = new HashMap<>();
+    private final Map<Key<?>, ScopeProvider> scopes = new HashMap<>();
+    private final Map<Class<? extends Annotation>, ScopeProvider> scopeProviders = new HashMap<>();
+    private final Map<Key<?>, Class<?>> implementations = new HashMap<>();
+    private final ValidatedGraph validated = new ValidatedGraph();
+    private final Mode mode;
+    private final InjectionPlan parent;
+    private ContainerMetrics metrics;
+    private ContainerImage image;
+
+    public ContextConfig() {
+        this(Mode.STRICT);
+    }
+
+    public ContextConfig(Mode mode) {
+        this(mode, null);
+    }
+
+    /**
+     * Starts a child of {@code parent}, e.g. to add a few per-request bindings to a large shared context. Its
+     * contexts validate and compile only the bindings of the child, reusing the plan of the parent for everything
+     * else, so getting one costs about as much as its own bindings. Bindings of the child take precedence over those
+     * of the parent, which never sees them; scopes other than {@link Singleton} must be registered again.
+     *
+     * @param parent a context got from a {@link ContextConfig}
+     */
+    public ContextConfig(Context parent) {
+        this(Mode.STRICT, planOf(parent));
+    }
+
+    private ContextConfig(Mode mode, InjectionPlan parent) {
+        this.mode = mode;
+        this.parent = parent;
+        scope(Singleton.class, SingletonProvider::new);
+        scope(Pooled.class, PooledProvider.SCOPE);
+        scope(RequestScoped.class, RequestScopedProvider.SCOPE);
+    }
+
+    private static InjectionPlan planOf(Context context) {
+        if (context instanceof InjectionPlan plan) return plan;
+        throw new IllegalArgumentException("can only extend contexts got from a ContextConfig");
+    }
+
+    /**
+     * Registers how bindings whose implementation is annotated with {@code scopeType} are scoped;
+     * applies to classes bound afterwards.
+     */
+    public <A extends Annotation> void scope(Class<A> scopeType, ScopeProvider provider) {
+        scopeProviders.put(scopeType, provider);
+    }
 
     public <T> void bind(Class<T> type, T instance) {
-        providers.put(type, new ComponentProvider<T>() {
+        bind(Key.of(type), instance);
+    }
+
+    /**
+     * Binds {@code instance} to a qualified or parameterized key, e.g. {@code Key.named(Dependency.class, "primary")}
+     * or {@code new Key<List<String>>() {}}.
+     */
+    public <T> void bind(Key<T> key, T instance) {
+        scopes.remove(key);
+        implementations.remove(key);
+        provide(key, new ComponentProvider<T>() {
             @Override
             public T get(Context context) {
                 return instance;
             }
 
             @Override
-            public List<Class<?>> getDependencies() {
+            public List<Key<?>> getDependencies() {
                 return List.of();
             }
+
+            @Override
+            public T create(Object[] dependencies) {
+                return instance;
+            }
         });
     }
 
+    /**
+     * Uses the factory generated by {@code org.boyu.processor.InjectProcessor} for {@code impl} if there is one,
+     * otherwise scans {@code impl} reflectively.
+     */
     public <T, U extends T> void bind(Class<T> type, Class<U> impl) {
+        bind(Key.of(type), impl);
+    }
+
+    public <T, U extends T> void bind(Key<T> key, Class<U> impl) {
         // TODO: HOW weird is it that the code below wouldn't work!
         // providers.put(type, context -> new ConstructionInjectionProvider<>(type, constructor));
-        providers.put(type, new ConstructionInjectionProvider<>(impl));
+        if (mode == Mode.LAZY) {
+            // rejects illegal scopes now, as only reading annotations, before registering anything
+            final Optional<ScopeProvider> scope = getScope(impl, scopeProviders);
+            implementations.put(key, impl);
+            provide(key, new LazyComponentProvider<>(() -> providerOf(impl, fromImage(impl))));
+            scope.ifPresentOrElse(it -> scopes.put(key, it), () -> scopes.remove(key));
+            return;
+        }
+        final Optional<ContainerImage.Resolved<U>> resolved = fromImage(impl);
+        final ComponentProvider<U> provider = providerOf(impl, resolved);
+        // rejects illegal lifecycle methods and scopes now, like illegal inject points, before registering anything
+        Lifecycle.of(impl);
+        final Optional<ScopeProvider> scope = resolved.map(it -> scopeOf(it.scope(), scopeProviders).map(found -> configured(impl, found)))
+                .orElseGet(() -> getScope(impl, scopeProviders));
+        implementations.put(key, impl);
+        provide(key, provider);
+        scope.ifPresentOrElse(it -> scopes.put(key, it), () -> scopes.remove(key));
+    }
+
+    /**
+     * Binds every class listed in the component indexes generated by {@code org.boyu.processor.InjectProcessor}, as
+     * found by the context class loader: each class to itself, and to each interface no other class listed
+     * implements. Nothing is scanned on the classpath; reading the indexes is one read per jar.
+     */
+    public void bindFromIndex() {
+        bindFromIndex(name -> true);
+    }
+
+    /**
+     * Like {@link #bindFromIndex()}, but only binds the classes whose binary names {@code classNames} accepts, e.g.
+     * those of a package; the other classes are not even loaded, nor do they make an interface ambiguous.
+     */
+    public void bindFromIndex(Predicate<String> classNames) {
+        final ClassLoader loader = Optional.ofNullable(Thread.currentThread().getContextClassLoader())
+                .orElse(ContextConfig.class.getClassLoader());
+        final List<ComponentIndex.Entry> entries = ComponentIndex.read(loader).stream()
+                .filter(it -> classNames.test(it.impl()))
+                .toList();
+        final Map<String, Long> implementations = entries.stream()
+                .flatMap(it -> it.interfaces().stream())
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        for (ComponentIndex.Entry entry : entries) {
+            final Class<?> impl = load(entry.impl(), loader);
+            bindIndexed(impl, impl);
+            entry.interfaces().stream()
+                    .filter(it -> implementations.get(it) == 1)
+                    .forEach(it -> bindIndexed(load(it, loader), impl));
+        }
+    }
+
+    private <T> void bindIndexed(Class<T> type, Class<?> impl) {
+        bind(Key.of(type), (Class<? extends T>) impl);
+    }
+
+    /**
+     * Loads without initializing, which is left to the first instance created.
+     */
+    private static Class<?> load(String name, ClassLoader loader) {
+        try {
+            return Class.forName(name, false, loader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("class " + name + " listed in " + ComponentIndex.LOCATION + " not found", e);
+        }
+    }
+
+    /**
+     * Takes what {@link ContainerImage#write} recorded in {@code file} instead of finding it out again: classes bound
+     * afterwards are not scanned, unless changed since, and {@link #getContext()} does not validate the bindings if
+     * they are exactly those written.
+     *
+     * @return whether the image was used; if {@code file} is missing or corrupt, nothing changes
+     */
+    public boolean useImage(Path file) {
+        image = ContainerImage.read(file).orElse(null);
+        return image != null;
+    }
+
+    private <U> Optional<ContainerImage.Resolved<U>> fromImage(Class<U> impl) {
+        return image == null ? Optional.empty() : image.resolve(impl);
+    }
+
+    /**
+     * Contributes {@code instance} to the set bound to {@code set}, e.g. {@code Key.setOf(Plugin.class)}: unlike
+     * {@link #bind(Key, Object)}, every contribution adds an element instead of replacing the binding.
+     */
+    public <T> void bindIntoSet(Key<Set<T>> set, T instance) {
+        final SetProvider<T> existing = setProviderOf(set);
+        final Key<T> element = contributionTo(set, 0, existing.getDependencies().size());
+        final SetProvider<T> provider = existing.with(element);
+        bind(element, instance);
+        provide(set, provider);
+    }
+
+    /**
+     * Contributes an instance of {@code impl}, scoped as annotated, to the set bound to {@code set}.
+     */
+    public <T, U extends T> void bindIntoSet(Key<Set<T>> set, Class<U> impl) {
+        final SetProvider<T> existing = setProviderOf(set);
+        final Key<T> element = contributionTo(set, 0, existing.getDependencies().size());
+        final SetProvider<T> provider = existing.with(element);
+        bind(element, impl);
+        provide(set, provider);
+    }
+
+    /**
+     * Contributes {@code instance} under {@code key} to the map bound to {@code map}, e.g.
+     * {@code Key.mapOf(String.class, Plugin.class)}; each key may be contributed once.
+     */
+    public <K, T> void bindIntoMap(Key<Map<K, T>> map, K key, T instance) {
+        final MapProvider<K, T> existing = mapProviderOf(map);
+        final Key<T> element = contributionTo(map, 1, existing.getDependencies().size());
+        final MapProvider<K, T> provider = existing.with(key, element);
+        bind(element, instance);
+        provide(map, provider);
+    }
+
+    public <K, T, U extends T> void bindIntoMap(Key<Map<K, T>> map, K key, Class<U> impl) {
+        final MapProvider<K, T> existing = mapProviderOf(map);
+        final Key<T> element = contributionTo(map, 1, existing.getDependencies().size());
+        final MapProvider<K, T> provider = existing.with(key, element);
+        bind(element, impl);
+        provide(map, provider);
+    }
+
+    /**
+     * Scopes whatever is bound to {@code key} with the provider registered for {@code scopeType}, e.g. a
+     * multibinding with {@link Singleton}, so its collection is only built once. A class bound to {@code key} keeps
+     * its lifecycle methods, e.g. when {@link Pooled}.
+     */
+    public void inScope(Key<?> key, Class<? extends Annotation> scopeType) {
+        final ScopeProvider scope = Optional.ofNullable(scopeProviders.get(scopeType))
+                .orElseThrow(() -> new IllegalComponentException(UNKNOWN_SCOPE));
+        final Class<?> impl = implementations.get(key);
+        scopes.put(key, impl == null ? scope : configured(impl, scope));
+    }
+
+    private void provide(Key<?> key, ComponentProvider<?> provider) {
+        providers.put(key, provider);
+        validated.changed(key);
+    }
+
+    private static <T> Key<T> contributionTo(Key<?> collection, int elementType, int position) {
+        final Type type = ((ParameterizedType) collection.getType()).getActualTypeArguments()[elementType];
+        return (Key<T>) Key.of(type, new ContributionLiteral(collection.toString(), position));
+    }
+
+    private <T> SetProvider<T> setProviderOf(Key<Set<T>> set) {
+        final ComponentProvider<?> provider = providers.get(set);
+        if (provider == null) return new SetProvider<>();
+        if (provider instanceof SetProvider<?> existing) return (SetProvider<T>) existing;
+        throw new IllegalComponentException(NOT_MULTIBINDING);
+    }
+
+    private <K, T> MapProvider<K, T> mapProviderOf(Key<Map<K, T>> map) {
+        final ComponentProvider<?> provider = providers.get(map);
+        if (provider == null) return new MapProvider<>();
+        if (provider instanceof MapProvider<?, ?> existing) return (MapProvider<K, T>) existing;
+        throw new IllegalComponentException(NOT_MULTIBINDING);
+    }
+
+    private static <U> ComponentProvider<U> providerOf(Class<U> impl, Optional<ContainerImage.Resolved<U>> resolved) {
+        return GeneratedFactories.find(impl).orElseGet(() -> resolved
+                .map(it -> new ConstructionInjectionProvider<>(it.injectionPoints()))
+                .orElseGet(() -> new ConstructionInjectionProvider<>(impl)));
+    }
+
+    private static Optional<ScopeProvider> getScope(Class<?> impl, Map<Class<? extends Annotation>, ScopeProvider> scopeProviders) {
+        final List<Class<? extends Annotation>> scopeTypes = Arrays.stream(impl.getAnnotations())
+                .map(Annotation::annotationType)
+                .filter(it -> it.isAnnotationPresent(Scope.class))
+                .toList();
+        if (scopeTypes.size() > 1) throw new IllegalComponentException(MULTI_SCOPES);
+
+        return scopeOf(scopeTypes.stream().findFirst(), scopeProviders).map(it -> configured(impl, it));
+    }
+
+    /**
+     * Sizes the default pool of {@link Pooled} per class; any other scope applies to every class alike.
+     */
+    private static ScopeProvider configured(Class<?> impl, ScopeProvider scope) {
+        return scope == PooledProvider.SCOPE ? PooledProvider.scopeOf(impl) : scope;
+    }
+
+    private static Optional<ScopeProvider> scopeOf(Optional<Class<? extends Annotation>> scopeType,
+                                                   Map<Class<? extends Annotation>, ScopeProvider> scopeProviders) {
+        return scopeType.map(it -> Optional.ofNullable(scopeProviders.get(it))
+                .orElseThrow(() -> new IllegalComponentException(UNKNOWN_SCOPE)));
     }
 
+    /**
+     * Validates and compiles a snapshot of the bindings made so far. The returned context is immutable and safe to
+     * share between threads without locking; bindings made afterwards only show up in contexts got later. Only the
+     * bindings made since the last context, and those depending on them, are validated again.
+     * <p>
+     * In {@link Mode#LAZY} mode, each binding is scanned, validated and compiled on its first use instead, together
+     * with whatever it depends on.
+     */
     public Context getContext() {
-        providers.keySet().forEach(key -> checkDependencies(key, new Stack<>()));
+        final Map<Key<?>, ComponentProvider<?>> snapshot = Map.copyOf(providers);
+        if (mode == Mode.LAZY) return InjectionPlan.lazy(snapshot, Map.copyOf(scopes), Map.copyOf(implementations), metrics, parent);
 
-        return new Context() {
-            @Override
-            public <T> Optional<T> get(Class<T> typeKey) {
-                return Optional.ofNullable(providers.get(typeKey))
-                        .map(it -> (T) it.get(this));
-            }
-        };
+        return validating(snapshot.size(), () -> {
+            if (!isValidatedByImage(snapshot)) validated.check(snapshot, InjectionPlan.inherited(parent, snapshot));
+            return InjectionPlan.compile(snapshot, Map.copyOf(scopes), Map.copyOf(implementations), metrics, parent);
+        });
     }
 
-    private void checkDependencies(Class<?> key, Stack<Class<?>> visiting) {
-        providers.get(key).getDependencies().forEach(dep -> {
-            if (!providers.containsKey(dep)) throw new DependencyNotFoundException(key, dep);
-            if (visiting.contains(dep)) throw new CyclicDependenciesFoundException(visiting);
-            visiting.push(dep);
-            checkDependencies(dep, visiting);
-            visiting.pop();
+    /**
+     * Like {@link #getContext()} in {@link Mode#STRICT} mode, but also creates every {@link jakarta.inject.Singleton}
+     * before returning. Each one is created on {@code executor} as soon as everything it depends on is ready, so
+     * independent components are created in parallel and startup takes about as long as the slowest dependency chain.
+     */
+    public Context getContext(Executor executor) {
+        final Map<Key<?>, ComponentProvider<?>> snapshot = Map.copyOf(providers);
+        final List<Key<?>> order = new ArrayList<>();
+        final InjectionPlan plan = validating(snapshot.size(), () -> {
+            order.addAll(isValidatedByImage(snapshot)
+                    ? image.orderOf(snapshot)
+                    : validatedOrder(snapshot));
+            return InjectionPlan.compile(snapshot, Map.copyOf(scopes), Map.copyOf(implementations), metrics, parent);
         });
+        plan.warmUp(order, executor);
+        return plan;
+    }
+
+    private List<Key<?>> validatedOrder(Map<Key<?>, ComponentProvider<?>> snapshot) {
+        validated.check(snapshot, InjectionPlan.inherited(parent, snapshot));
+        return validated.order();
+    }
+
+    /**
+     * Validates a snapshot of the bindings made so far, like {@link #getContext()}, and returns their dependency graph
+     * instead of compiling it.
+     */
+    public ContainerGraph getGraph() {
+        final Map<Key<?>, ComponentProvider<?>> snapshot = Map.copyOf(providers);
+        return new ContainerGraph(snapshot, DependencyChecker.check(snapshot, snapshot.keySet(), InjectionPlan.inherited(parent, snapshot)));
+    }
+
+    /**
+     * Starts recording metrics in the contexts got from now on.
+     *
+     * @return where they are recorded, the same for every call
+     */
+    public ContainerMetrics enableMetrics() {
+        if (metrics == null) metrics = new ContainerMetrics();
+        return metrics;
+    }
+
+    private boolean isValidatedByImage(Map<Key<?>, ComponentProvider<?>> snapshot) {
+        return image != null && parent == null && image.isGraphOf(snapshot, implementations);
+    }
+
+    Map<Key<?>, ComponentProvider<?>> getProviders() {
+        return Map.copyOf(providers);
+    }
+
+    Map<Key<?>, Class<?>> getImplementations() {
+        return Map.copyOf(implementations);
     }
 
+    /**
+     * @return what {@code providers}, bound by this config, may take as already validated in the parent
+     */
+    Predicate<Key<?>> inheritedBy(Map<Key<?>, ComponentProvider<?>> providers) {
+        return InjectionPlan.inherited(parent, providers);
+    }
+
+    private <R> R validating(int size, Supplier<R> validation) {
+        return metrics == null ? validation.get() : metrics.validate(size, validation);
+    }
+
+    public enum Mode {
+        /** scan on bind, validate and compile everything in {@link #getContext()} */
+        STRICT,
+        /** only record implementation classes and their scopes on bind; scan, validate and compile each binding on first use */
+        LAZY
+    }
 }
@@ -0,0 +1,24 @@
+package org.boyu;
+
+import jakarta.inject.Qualifier;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Qualifies the binding of one element contributed to a {@code Set} or {@code Map} multibinding, so every element
+ * is an ordinary binding of its own, with its own scope.
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+@interface Contribution {
+    /**
+     * The key of the multibinding the element is contributed to.
+     */
+    String to();
+
+    /**
+     * The position of the element among those contributed to it.
+     */
+    int value();
+}
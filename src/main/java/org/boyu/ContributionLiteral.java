@@ -0,0 +1,47 @@
+package org.boyu;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * A {@code @Contribution} numbering the elements of each multibinding in the order they are contributed, following
+ * the {@link Annotation} contract.
+ */
+final class ContributionLiteral implements Contribution {
+    private final String to;
+    private final int value;
+
+    ContributionLiteral(String to, int value) {
+        this.to = to;
+        this.value = value;
+    }
+
+    @Override
+    public String to() {
+        return to;
+    }
+
+    @Override
+    public int value() {
+        return value;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return Contribution.class;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Contribution contribution && value == contribution.value() && to.equals(contribution.to());
+    }
+
+    @Override
+    public int hashCode() {
+        return ((127 * "to".hashCode()) ^ to.hashCode()) + ((127 * "value".hashCode()) ^ Integer.hashCode(value));
+    }
+
+    @Override
+    public String toString() {
+        return "@" + Contribution.class.getName() + "(to=\"" + to + "\", value=" + value + ")";
+    }
+}
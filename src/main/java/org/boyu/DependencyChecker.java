@@ -0,0 +1,115 @@
+package org.boyu;
+
+import org.boyu.exception.CyclicDependenciesFoundException;
+import org.boyu.exception.DependencyNotFoundException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Validates the graph in a single coloured depth-first pass, i.e. O(V+E): every component is visited once, and
+ * each edge back to a component still on the current path closes a cycle. {@link InjectionKind#isDeferred()
+ * Deferred} dependencies must exist, but are checked as roots of their own, so they may close a cycle legally.
+ * <p>
+ * Nothing recurses, so graphs thousands of components deep are checked as well as shallow ones.
+ */
+final class DependencyChecker {
+    private final Map<Key<?>, ComponentProvider<?>> providers;
+    private final Predicate<Key<?>> checked;
+    private final Map<Key<?>, Color> colors = new HashMap<>();
+    private final List<List<Key<?>>> cycles = new ArrayList<>();
+    private final List<Key<?>> order = new ArrayList<>();
+    private final Deque<Key<?>> deferred = new ArrayDeque<>();
+
+    private DependencyChecker(Map<Key<?>, ComponentProvider<?>> providers, Predicate<Key<?>> checked) {
+        this.providers = providers;
+        this.checked = checked;
+    }
+
+    /**
+     * Checks everything reachable from {@code roots}, treating components {@code checked} as already valid, whether
+     * bound in {@code providers} or inherited from a parent context.
+     *
+     * @return the components newly checked, each after all its direct (not deferred) dependencies
+     */
+    static List<Key<?>> check(Map<Key<?>, ComponentProvider<?>> providers, Collection<Key<?>> roots, Predicate<Key<?>> checked) {
+        final DependencyChecker checker = new DependencyChecker(providers, checked);
+        roots.forEach(checker::check);
+        while (!checker.deferred.isEmpty()) {
+            checker.check(checker.deferred.poll());
+        }
+        if (!checker.cycles.isEmpty()) {
+            throw new CyclicDependenciesFoundException(checker.cycles.stream()
+                    .map(cycle -> cycle.stream().<Class<?>>map(Key::getRawType).toList())
+                    .toList());
+        }
+        return checker.order;
+    }
+
+    static List<Key<?>> check(Map<Key<?>, ComponentProvider<?>> providers) {
+        return check(providers, providers.keySet(), key -> false);
+    }
+
+    /**
+     * Walks depth-first with an explicit stack of {@link Step steps}, one per component on the current path, so how
+     * deep the graph goes is not limited by the depth of the thread stack.
+     */
+    private void check(Key<?> root) {
+        if (colors.containsKey(root) || checked.test(root)) return;
+        final List<Step> path = new ArrayList<>();
+        path.add(enter(root));
+        while (!path.isEmpty()) {
+            final Step step = path.get(path.size() - 1);
+            if (!step.dependencies.hasNext()) {
+                path.remove(path.size() - 1);
+                colors.put(step.key, Color.BLACK);
+                order.add(step.key);
+                continue;
+            }
+            final Key<?> type = step.dependencies.next();
+            final Key<?> dep = InjectionKind.componentOf(type);
+            if (!providers.containsKey(dep) && !checked.test(dep)) throw new DependencyNotFoundException(step.key, dep);
+            if (InjectionKind.of(type).isDeferred()) {
+                deferred.add(dep);
+                continue;
+            }
+            final Color color = colors.get(dep);
+            if (color == Color.GREY) {
+                cycles.add(cycleOf(path, dep));
+            } else if (color == null && !checked.test(dep)) {
+                path.add(enter(dep));
+            }
+        }
+    }
+
+    private Step enter(Key<?> key) {
+        colors.put(key, Color.GREY);
+        return new Step(key, providers.get(key).getDependencies().iterator());
+    }
+
+    private static List<Key<?>> cycleOf(List<Step> path, Key<?> closing) {
+        int from = path.size() - 1;
+        while (!path.get(from).key.equals(closing)) from--;
+        return path.subList(from, path.size()).stream().<Key<?>>map(Step::key).toList();
+    }
+
+    /**
+     * A component on the current path, with the dependencies not visited yet.
+     */
+    private record Step(Key<?> key, Iterator<Key<?>> dependencies) {
+    }
+
+    private enum Color {
+        /** on the current depth-first path */
+        GREY,
+        /** fully checked, together with everything it depends on */
+        BLACK
+    }
+}
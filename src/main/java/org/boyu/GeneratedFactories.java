@@ -0,0 +1,30 @@
+package org.boyu;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+
+/**
+ * Finds the {@link ComponentProvider} generated at compile time by {@code org.boyu.processor.InjectProcessor},
+ * named after the binary name of the component with {@code $} replaced by {@code _}, plus {@code _Factory}.
+ */
+final class GeneratedFactories {
+    static final String FACTORY_SUFFIX = "_Factory";
+
+    private GeneratedFactories() {
+    }
+
+    static <T> Optional<ComponentProvider<T>> find(Class<T> impl) {
+        final String packageName = impl.getPackageName();
+        final String simpleBinaryName = impl.getName().substring(packageName.isEmpty() ? 0 : packageName.length() + 1);
+        final String factoryName = (packageName.isEmpty() ? "" : packageName + ".") + simpleBinaryName.replace('$', '_') + FACTORY_SUFFIX;
+        try {
+            final Class<?> factory = Class.forName(factoryName, true, impl.getClassLoader());
+            if (!ComponentProvider.class.isAssignableFrom(factory)) return Optional.empty();
+            return Optional.of((ComponentProvider<T>) factory.getConstructor().newInstance());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
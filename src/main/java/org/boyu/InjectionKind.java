@@ -0,0 +1,60 @@
+package org.boyu;
+
+import jakarta.inject.Provider;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * How a dependency is injected, told from its declared type: the component itself, or a {@link Provider} or
+ * {@link Lazy} of it, which defer creating it and so do not count as edges of a dependency cycle.
+ */
+enum InjectionKind {
+    INSTANCE,
+    PROVIDER,
+    LAZY;
+
+    static InjectionKind of(Key<?> key) {
+        if (key.getType() instanceof ParameterizedType parameterized) {
+            if (parameterized.getRawType() == Provider.class) return PROVIDER;
+            if (parameterized.getRawType() == Lazy.class) return LAZY;
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * @return the key of the component a dependency declared as {@code key} is resolved from, keeping its qualifier
+     */
+    static Key<?> componentOf(Key<?> key) {
+        if (of(key) == INSTANCE) return key;
+        return Key.of(((ParameterizedType) key.getType()).getActualTypeArguments()[0], key.getQualifier());
+    }
+
+    boolean isDeferred() {
+        return this != INSTANCE;
+    }
+
+    /**
+     * Keeps classes and parameterized types, e.g. {@code List<String>}, as they are declared; type variables and
+     * the like become their erasure.
+     */
+    static Type normalize(Type type, Class<?> erasure) {
+        return type instanceof Class<?> || type instanceof ParameterizedType ? type : erasure;
+    }
+
+    /**
+     * Resolves a dependency declared as {@code key} through {@code context}.
+     */
+    static Object resolve(Context context, Key<?> key) {
+        final Key<?> component = componentOf(key);
+        return switch (of(key)) {
+            case INSTANCE -> context.require(component);
+            case PROVIDER -> (Provider<?>) () -> context.require(component);
+            case LAZY -> lazy(() -> context.require(component));
+        };
+    }
+
+    static <T> Lazy<T> lazy(Provider<T> provider) {
+        return new SingletonProvider<>(provider)::get;
+    }
+}
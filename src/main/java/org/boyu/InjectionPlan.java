@@ -0,0 +1,673 @@
+package org.boyu;
+
+import jakarta.inject.Provider;
+import org.boyu.exception.DependencyNotFoundException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The {@link Context} compiled by {@link ContextConfig#getContext()} from a validated graph: every binding becomes a
+ * {@link Node} whose dependencies point straight at other nodes, so resolving a component only walks arrays.
+ * <p>
+ * Once compiled, nodes never change (scoped holders aside, which are thread-safe themselves), so any number of
+ * threads may resolve from the plan concurrently without locking. A lazy plan compiles a binding and what it depends
+ * on at its first use, under a lock taken only while compiling.
+ * <p>
+ * A child plan holds the nodes of its own bindings only. Their dependencies on the parent link straight to the
+ * parent's nodes, and whatever the child does not bind is looked up in the parent, which never sees the child.
+ * <p>
+ * Resolving recurses from node to node only {@value Node#MAX_RECURSION} components deep: the dependencies still to
+ * construct below are walked by {@link Node#construct(Object[], int, Unit)} on an explicit stack, so the depth of the
+ * graph is not limited by the thread stack, while shallow graphs allocate nothing but their components.
+ */
+final class InjectionPlan implements Context {
+    private final Map<Key<?>, ComponentProvider<?>> providers;
+    private final Map<Key<?>, ScopeProvider> scopes;
+    private final Map<Key<?>, Class<?>> implementations;
+    private final Map<Key<?>, Node<?>> nodes;
+    private final ContainerMetrics metrics;
+    private final InjectionPlan parent;
+    private final ReentrantLock compiling = new ReentrantLock();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private InjectionPlan(Map<Key<?>, ComponentProvider<?>> providers, Map<Key<?>, ScopeProvider> scopes,
+                          Map<Key<?>, Class<?>> implementations, Map<Key<?>, Node<?>> nodes, ContainerMetrics metrics,
+                          InjectionPlan parent) {
+        this.providers = providers;
+        this.scopes = scopes;
+        this.implementations = implementations;
+        this.nodes = nodes;
+        this.metrics = metrics;
+        this.parent = parent;
+    }
+
+    /**
+     * Compiles every binding up front, which must have been validated already.
+     *
+     * @param implementations the classes bound, whose lifecycle methods the nodes invoke
+     * @param metrics where nodes record their creations, or {@code null} to record nothing
+     * @param parent  the plan to fall back on, or {@code null}
+     * @throws DependencyNotFoundException if a dependency is bound nowhere after all
+     */
+    static InjectionPlan compile(Map<Key<?>, ComponentProvider<?>> providers, Map<Key<?>, ScopeProvider> scopes,
+                                 Map<Key<?>, Class<?>> implementations, ContainerMetrics metrics, InjectionPlan parent) {
+        final Map<Key<?>, Node<?>> compiled = new HashMap<>();
+        providers.keySet().forEach(key -> compiled.put(key, newNode(key, providers, scopes, implementations, metrics)));
+        compiled.forEach((component, node) -> node.link(key -> {
+            final Node<?> dependency = compiled.containsKey(key) ? compiled.get(key) : parent == null ? null : parent.nodeOf(key);
+            if (dependency == null) throw new DependencyNotFoundException(component, key);
+            return dependency;
+        }));
+        return new InjectionPlan(providers, scopes, implementations, Map.copyOf(compiled), metrics, parent);
+    }
+
+    static InjectionPlan lazy(Map<Key<?>, ComponentProvider<?>> providers, Map<Key<?>, ScopeProvider> scopes,
+                              Map<Key<?>, Class<?>> implementations, ContainerMetrics metrics, InjectionPlan parent) {
+        return new InjectionPlan(providers, scopes, implementations, new ConcurrentHashMap<>(), metrics, parent);
+    }
+
+    /**
+     * @return what a child of {@code parent} binding {@code providers} itself may take as already validated
+     */
+    static Predicate<Key<?>> inherited(InjectionPlan parent, Map<Key<?>, ComponentProvider<?>> providers) {
+        return parent == null ? key -> false : key -> !providers.containsKey(key) && parent.isBound(key);
+    }
+
+    private boolean isBound(Key<?> key) {
+        return providers.containsKey(key) || parent != null && parent.isBound(key);
+    }
+
+    private static Node<?> newNode(Key<?> key, Map<Key<?>, ComponentProvider<?>> providers, Map<Key<?>, ScopeProvider> scopes,
+                                   Map<Key<?>, Class<?>> implementations, ContainerMetrics metrics) {
+        final Class<?> impl = implementations.get(key);
+        final Lifecycle lifecycle = impl == null ? null : Lifecycle.of(impl);
+        return new Node<>(providers.get(key), scopes.get(key), lifecycle == null || lifecycle.isEmpty() ? null : lifecycle,
+                metrics == null ? null : metrics.binding(key));
+    }
+
+    @Override
+    public <T> Optional<T> get(Key<T> key) {
+        final Node<T> node = nodeOf(key);
+        return node == null ? Optional.empty() : Optional.ofNullable(node.get());
+    }
+
+    /**
+     * Allocates nothing but the components created on the way: no {@link Optional}, lambda or iterator.
+     */
+    @Override
+    public <T> T require(Key<T> key) {
+        final Node<T> node = nodeOf(key);
+        if (node == null) throw new DependencyNotFoundException(null, key);
+        return node.get();
+    }
+
+    @Override
+    public <T> Lease<T> lease(Key<T> key) {
+        final Node<T> node = nodeOf(key);
+        if (node == null) throw new DependencyNotFoundException(null, key);
+        if (node.scoped instanceof PooledProvider<T> pool) return pool.lease();
+        return new Lease<>(node.get(), null);
+    }
+
+    @Override
+    public UnitOfWork openUnitOfWork() {
+        return new Unit();
+    }
+
+    /**
+     * Walks the nodes on the calling thread without blocking; only constructing runs on {@code executor}.
+     */
+    @Override
+    public <T> CompletableFuture<T> getAsync(Key<T> key, Executor executor) {
+        try {
+            final Node<T> node = nodeOf(key);
+            if (node == null) return CompletableFuture.failedFuture(new DependencyNotFoundException(null, key));
+            return node.getAsync(executor);
+        } catch (RuntimeException e) {
+            // validation errors of a lazy plan
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Tears down the singletons this plan created, and the {@link Pooled} instances idle in its pools, in reverse
+     * dependency order: each one once everything depending on it directly or transitively is torn down, independent
+     * ones in parallel on {@code executor}. Instances bound directly, leased, or of other scopes, are owned by whoever
+     * made them; a parent is not closed with its children,
+     * which should be closed first. A failing {@code @PreDestroy} does not stop the others and is thrown at the end,
+     * with any further failures suppressed.
+     */
+    @Override
+    public void close(Executor executor) {
+        if (!closed.compareAndSet(false, true)) return;
+        final List<Node<?>> owned = List.copyOf(nodes.values());
+        final Map<Node<?>, Integer> dependents = new HashMap<>();
+        owned.forEach(node -> dependents.put(node, 0));
+        owned.forEach(node -> node.directDependencies().filter(dependents::containsKey).forEach(it -> dependents.merge(it, 1, Integer::sum)));
+
+        final Map<Node<?>, List<CompletableFuture<Void>>> destroyedDependents = new HashMap<>();
+        final Deque<Node<?>> ready = new ArrayDeque<>();
+        owned.stream().filter(node -> dependents.get(node) == 0).forEach(ready::add);
+        final Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+        final List<CompletableFuture<Void>> destroyed = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            final Node<?> node = ready.poll();
+            final CompletableFuture<Void> done = CompletableFuture
+                    .allOf(destroyedDependents.getOrDefault(node, List.of()).toArray(CompletableFuture[]::new))
+                    .thenRunAsync(() -> {
+                        try {
+                            node.destroy();
+                        } catch (RuntimeException e) {
+                            failures.add(e);
+                        }
+                    }, executor);
+            destroyed.add(done);
+            node.directDependencies().filter(dependents::containsKey).forEach(dependency -> {
+                destroyedDependents.computeIfAbsent(dependency, it -> new ArrayList<>()).add(done);
+                if (dependents.merge(dependency, -1, Integer::sum) == 0) ready.add(dependency);
+            });
+        }
+        CompletableFuture.allOf(destroyed.toArray(CompletableFuture[]::new)).join();
+
+        final RuntimeException first = failures.poll();
+        if (first == null) return;
+        failures.forEach(first::addSuppressed);
+        throw first;
+    }
+
+    private <T> Node<T> nodeOf(Key<T> key) {
+        final Node<?> node = nodes.get(key);
+        if (node != null) return (Node<T>) node;
+        if (providers.containsKey(key)) return (Node<T>) compile(key);
+        return parent == null ? null : parent.nodeOf(key);
+    }
+
+    private Node<?> compile(Key<?> key) {
+        compiling.lock();
+        try {
+            final Node<?> existing = nodes.get(key);
+            if (existing != null) return existing;
+            return metrics == null ? compileFrom(key) : metrics.validate(1, () -> compileFrom(key));
+        } finally {
+            compiling.unlock();
+        }
+    }
+
+    /**
+     * Compiles {@code key} and what it depends on that is not compiled yet; called holding the lock.
+     */
+    private Node<?> compileFrom(Key<?> key) {
+        final Predicate<Key<?>> inherited = inherited(parent, providers);
+        final List<Key<?>> order = DependencyChecker.check(providers, List.of(key), it -> nodes.containsKey(it) || inherited.test(it));
+        final Map<Key<?>, Node<?>> compiled = new HashMap<>();
+        order.forEach(it -> compiled.put(it, newNode(it, providers, scopes, implementations, metrics)));
+        compiled.values().forEach(node -> node.link(it -> compiled.containsKey(it) ? compiled.get(it) : nodeOf(it)));
+        // dependencies come first in the order, so no node is visible before what it depends on
+        order.forEach(it -> nodes.put(it, compiled.get(it)));
+        return compiled.get(key);
+    }
+
+    /**
+     * Creates the singletons among {@code order}, which lists every node after its dependencies, each as soon as
+     * the nodes it depends on are done.
+     */
+    void warmUp(List<Key<?>> order, Executor executor) {
+        final Map<Node<?>, CompletableFuture<Void>> done = new HashMap<>();
+        for (Key<?> type : order) {
+            final Node<?> node = nodes.get(type);
+            final CompletableFuture<?>[] dependencies = IntStream.range(0, node.dependencies.length)
+                    .filter(i -> !node.kinds[i].isDeferred())
+                    .mapToObj(i -> done.get(node.dependencies[i]))
+                    // nodes of a parent are not warmed up here
+                    .filter(Objects::nonNull)
+                    .toArray(CompletableFuture[]::new);
+            done.put(node, CompletableFuture.allOf(dependencies).thenRunAsync(node.isSingleton() ? node::get : () -> {
+            }, executor));
+        }
+        try {
+            CompletableFuture.allOf(done.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    static final class Node<T> implements Provider<T> {
+        private static final Object[] NO_DEPENDENCIES = new Object[0];
+        /** how deep dependencies are constructed by plain recursion before switching to an explicit stack */
+        static final int MAX_RECURSION = 64;
+
+        private final ComponentProvider<T> provider;
+        private final Provider<T> scoped;
+        private final Lifecycle lifecycle;
+        private final ContainerMetrics.Binding metrics;
+        /** a singleton being created by {@link #getAsync(Executor)}, so concurrent resolutions wait for it */
+        private final AtomicReference<CompletableFuture<T>> creating = new AtomicReference<>();
+        private Node<?>[] dependencies;
+        private InjectionKind[] kinds;
+        private Instantiator<T> instantiator;
+
+        private Node(ComponentProvider<T> provider, ScopeProvider scope, Lifecycle lifecycle, ContainerMetrics.Binding metrics) {
+            this.provider = provider;
+            this.scoped = scope == null ? null : scope.scope(this::create);
+            this.lifecycle = lifecycle;
+            this.metrics = metrics;
+        }
+
+        private void link(Function<Key<?>, Node<?>> nodes) {
+            final List<Key<?>> types = provider.getDependencies();
+            dependencies = new Node<?>[types.size()];
+            kinds = new InjectionKind[types.size()];
+            for (int i = 0; i < dependencies.length; i++) {
+                dependencies[i] = nodes.apply(InjectionKind.componentOf(types.get(i)));
+                kinds[i] = InjectionKind.of(types.get(i));
+            }
+            if (metrics != null) instantiator = instantiatorOf(provider);
+        }
+
+        /**
+         * @return the instantiator behind a reflectively scanned binding, so its injection can be timed apart
+         */
+        private static <T> Instantiator<T> instantiatorOf(ComponentProvider<T> provider) {
+            if (provider instanceof LazyComponentProvider<T> lazy) return instantiatorOf(lazy.getDelegate());
+            if (provider instanceof ConstructionInjectionProvider<T> reflective) return reflective.getInstantiator();
+            return null;
+        }
+
+        boolean isSingleton() {
+            return scoped instanceof SingletonProvider;
+        }
+
+        /**
+         * @return the nodes this one uses as soon as it is created, i.e. not through a provider nor lazily
+         */
+        private Stream<Node<?>> directDependencies() {
+            return IntStream.range(0, dependencies.length).filter(i -> !kinds[i].isDeferred()).mapToObj(i -> dependencies[i]);
+        }
+
+        @Override
+        public T get() {
+            return scoped == null ? create() : scoped.get();
+        }
+
+        /**
+         * Same as {@link #get()}, within {@code unit} if not {@code null}.
+         */
+        private T get(Unit unit) {
+            if (unit == null) return get();
+            if (scoped == null) return create(unit);
+            if (scoped instanceof RequestScopedProvider) return unit.instanceOf(this);
+            return scoped.get();
+        }
+
+        private T create() {
+            return create(null);
+        }
+
+        private T create(Unit unit) {
+            return instantiate(argumentsOf(unit, 0));
+        }
+
+        /**
+         * Resolves all the dependencies of this node, constructing those not at hand recursively while less than
+         * {@link #MAX_RECURSION} nodes deep, on an explicit stack beyond.
+         *
+         * @param depth how many nodes constructing this one is nested in
+         */
+        private Object[] argumentsOf(Unit unit, int depth) {
+            if (dependencies.length == 0) return NO_DEPENDENCIES;
+            final Object[] args = new Object[dependencies.length];
+            int pending = resolveDependencies(args, 0, unit);
+            if (pending < args.length && depth >= MAX_RECURSION) {
+                construct(args, pending, unit);
+                return args;
+            }
+            while (pending < args.length) {
+                args[pending] = dependencies[pending].constructWithin(unit, depth + 1);
+                pending = resolveDependencies(args, pending + 1, unit);
+            }
+            return args;
+        }
+
+        /**
+         * Constructs this node as a dependency not at hand of a node resolved within {@code unit}.
+         */
+        private T constructWithin(Unit unit, int depth) {
+            final Unit within = within(unit);
+            return complete(argumentsOf(within, depth), within);
+        }
+
+        /**
+         * @return the unit of work the dependencies of this node are resolved within: only unscoped and
+         * {@link RequestScoped} components live no longer than {@code unit}
+         */
+        private Unit within(Unit unit) {
+            return scoped == null || scoped instanceof RequestScopedProvider ? unit : null;
+        }
+
+        private T instantiate(Object[] args) {
+            final T instance = metrics == null ? provider.create(args) : metrics.create(provider, instantiator, args);
+            if (lifecycle != null) lifecycle.postConstruct(instance);
+            return instance;
+        }
+
+        /**
+         * Invokes the {@code @PreDestroy} methods of the singleton, if created, or closes the pool, destroying the
+         * instances idle in it and those leased when returned; the plan owns no other instances.
+         */
+        private void destroy() {
+            if (scoped instanceof PooledProvider<T> pool) pool.close();
+            if (lifecycle == null || !lifecycle.hasPreDestroy()) return;
+            if (scoped instanceof SingletonProvider<T> singleton && singleton.isCreated()) lifecycle.preDestroy(singleton.get());
+        }
+
+        /**
+         * Instantiates this node from dependencies resolved outside its scope. A singleton some other thread created
+         * meanwhile wins over the instance these arguments would make.
+         */
+        private T complete(Object[] args, Unit unit) {
+            if (scoped instanceof SingletonProvider<T> singleton) return singleton.getOrCreate(() -> instantiate(args));
+            if (unit != null && scoped instanceof RequestScopedProvider) return unit.put(this, instantiate(args));
+            return instantiate(args);
+        }
+
+        /**
+         * Fills {@code args} from {@code from} on with the dependencies at hand without constructing anything.
+         *
+         * @return the index of the first dependency to construct, or the length of {@code args} if none is left
+         */
+        private int resolveDependencies(Object[] args, int from, Unit unit) {
+            for (int i = from; i < args.length; i++) {
+                final Node<?> dependency = dependencies[i];
+                switch (kinds[i]) {
+                    case INSTANCE -> {
+                        if (!dependency.isAtHand(unit)) return i;
+                        args[i] = dependency.get(unit);
+                    }
+                    case PROVIDER -> args[i] = deferred(dependency, unit);
+                    case LAZY -> args[i] = InjectionKind.lazy(deferred(dependency, unit));
+                }
+            }
+            return args.length;
+        }
+
+        /**
+         * @return what gets {@code node} later, within {@code unit} if not {@code null}
+         */
+        private static <D> Provider<D> deferred(Node<D> node, Unit unit) {
+            return unit == null ? node : unit.providerOf(node);
+        }
+
+        /**
+         * Whether {@link #get()} returns without constructing dependencies: nothing to depend on, a singleton already
+         * created, one {@code unit} holds already, or a custom scope, which is opaque to the plan and constructs
+         * through its own {@link #create()}.
+         */
+        private boolean isAtHand(Unit unit) {
+            if (scoped == null) return dependencies.length == 0;
+            if (scoped instanceof RequestScopedProvider) return unit == null || unit.holds(this);
+            return !(scoped instanceof SingletonProvider<T> singleton) || singleton.isCreated();
+        }
+
+        /**
+         * Fills {@code args} of this node, whose dependency {@code pending} and those after it are still to be
+         * resolved, by walking its dependencies depth-first with an explicit stack, so that chains thousands of
+         * components deep neither recurse nor overflow the thread stack. Components are created in the same order as
+         * resolving each dependency in turn would.
+         */
+        private void construct(Object[] args, int pending, Unit unit) {
+            final Deque<Construction<?>> stack = new ArrayDeque<>();
+            stack.push(new Construction<>(this, args, pending, unit));
+            while (true) {
+                final Construction<?> top = stack.peek();
+                if (top.pending < top.args.length) {
+                    stack.push(Construction.of(top.node.dependencies[top.pending], top.unit));
+                    continue;
+                }
+                stack.pop();
+                if (stack.isEmpty()) return;
+                final Construction<?> waiting = stack.peek();
+                waiting.args[waiting.pending] = top.node.complete(top.args, top.unit);
+                waiting.pending = waiting.node.resolveDependencies(waiting.args, waiting.pending + 1, waiting.unit);
+            }
+        }
+
+        /**
+         * Same walk as {@link #construct(Object[], int, Unit)}, but collecting futures: each node to construct becomes
+         * a task on {@code executor} run once the futures of all its dependencies are done, so independent dependencies
+         * are constructed concurrently. A singleton is constructed by one task only, whose future every resolution
+         * shares until it is done. If the walk fails, e.g. {@code executor} rejecting a task, the singletons it claimed but
+         * did not start are released and their futures failed with it, like those of a failed construction.
+         */
+        private CompletableFuture<T> getAsync(Executor executor) {
+            final Deque<AsyncConstruction<?>> stack = new ArrayDeque<>();
+            try {
+                final CompletableFuture<T> ready = futureOf(this, stack, executor);
+                if (ready != null) return ready;
+                while (true) {
+                    final AsyncConstruction<?> top = stack.peek();
+                    if (top.pending < top.futures.length) {
+                        final CompletableFuture<?> future = top.nextDependency(stack, executor);
+                        if (future != null) top.futures[top.pending++] = future;
+                        continue;
+                    }
+                    final CompletableFuture<?> future = top.start(executor);
+                    stack.pop();
+                    if (stack.isEmpty()) return (CompletableFuture<T>) future;
+                    final AsyncConstruction<?> waiting = stack.peek();
+                    waiting.futures[waiting.pending++] = future;
+                }
+            } catch (RuntimeException | Error e) {
+                stack.forEach(it -> it.release(e));
+                throw e;
+            }
+        }
+
+        /**
+         * @return the future of {@code node} if nothing needs constructing first, or {@code null} after pushing its
+         * construction onto {@code stack}
+         */
+        private static <T> CompletableFuture<T> futureOf(Node<T> node, Deque<AsyncConstruction<?>> stack, Executor executor) {
+            if (node.scoped instanceof SingletonProvider<T> singleton) {
+                if (singleton.isCreated()) return CompletableFuture.completedFuture(singleton.get());
+                final CompletableFuture<T> promise = new CompletableFuture<>();
+                final AsyncConstruction<T> construction = new AsyncConstruction<>(node, promise);
+                while (!node.creating.compareAndSet(null, promise)) {
+                    final CompletableFuture<T> creating = node.creating.get();
+                    if (creating != null) return creating;
+                }
+                stack.push(construction);
+                return null;
+            }
+            if (node.scoped != null || node.dependencies.length == 0) return CompletableFuture.supplyAsync(node::get, executor);
+            stack.push(new AsyncConstruction<>(node, null));
+            return null;
+        }
+    }
+
+    /**
+     * The {@link RequestScoped} instances of one unit of work, keyed by node. Resolving from the unit passes it down
+     * the walk explicitly, as a parameter, so no thread holds on to it; leased and pooled components are as in the
+     * plan. A unit is confined to its unit of work, used by one thread at a time, so it needs no synchronization, and
+     * allocates its maps only once it holds a component: opening one costs this object alone.
+     */
+    private final class Unit implements UnitOfWork {
+        private Map<Node<?>, Object> instances;
+        /** those with {@code @PreDestroy} methods, in the order created */
+        private List<Node<?>> created;
+        private boolean ended;
+
+        @Override
+        public <T> Optional<T> get(Key<T> key) {
+            final Node<T> node = nodeOf(key);
+            return node == null ? Optional.empty() : Optional.ofNullable(node.get(this));
+        }
+
+        @Override
+        public <T> T require(Key<T> key) {
+            final Node<T> node = nodeOf(key);
+            if (node == null) throw new DependencyNotFoundException(null, key);
+            return node.get(this);
+        }
+
+        @Override
+        public <T> Lease<T> lease(Key<T> key) {
+            final Node<T> node = nodeOf(key);
+            if (node == null) throw new DependencyNotFoundException(null, key);
+            if (node.scoped instanceof PooledProvider<T> pool) return pool.lease();
+            return new Lease<>(node.get(this), null);
+        }
+
+        @Override
+        public void close() {
+            if (ended) return;
+            ended = true;
+            RuntimeException failure = null;
+            for (int i = created == null ? -1 : created.size() - 1; i >= 0; i--) {
+                final Node<?> node = created.get(i);
+                try {
+                    node.lifecycle.preDestroy(instances.get(node));
+                } catch (RuntimeException e) {
+                    if (failure == null) failure = e;
+                    else failure.addSuppressed(e);
+                }
+            }
+            instances = null;
+            created = null;
+            if (failure != null) throw failure;
+        }
+
+        private boolean holds(Node<?> node) {
+            return instances != null && instances.containsKey(node);
+        }
+
+        private <T> T instanceOf(Node<T> node) {
+            checkOpen();
+            final Object instance = instances == null ? null : instances.get(node);
+            return instance != null ? (T) instance : put(node, node.create(this));
+        }
+
+        private <T> T put(Node<T> node, T instance) {
+            checkOpen();
+            if (instances == null) instances = new HashMap<>();
+            instances.put(node, instance);
+            if (node.lifecycle != null && node.lifecycle.hasPreDestroy()) {
+                if (created == null) created = new ArrayList<>();
+                created.add(node);
+            }
+            return instance;
+        }
+
+        private void checkOpen() {
+            if (ended) throw new IllegalStateException("unit of work closed already");
+        }
+
+        private <T> Provider<T> providerOf(Node<T> node) {
+            return () -> node.get(this);
+        }
+    }
+
+    /**
+     * A node on the stack of {@link Node#getAsync(Executor)}, with the futures of the dependencies walked so far.
+     */
+    private static final class AsyncConstruction<T> {
+        private final Node<T> node;
+        private final CompletableFuture<T> promise;
+        private final CompletableFuture<?>[] futures;
+        private int pending;
+
+        /**
+         * @param promise what a singleton claimed in {@link Node#creating}, or {@code null}
+         */
+        private AsyncConstruction(Node<T> node, CompletableFuture<T> promise) {
+            this.node = node;
+            this.promise = promise;
+            this.futures = new CompletableFuture<?>[node.dependencies.length];
+        }
+
+        private CompletableFuture<?> nextDependency(Deque<AsyncConstruction<?>> stack, Executor executor) {
+            final Node<?> dependency = node.dependencies[pending];
+            return switch (node.kinds[pending]) {
+                case INSTANCE -> Node.futureOf(dependency, stack, executor);
+                case PROVIDER -> CompletableFuture.completedFuture(dependency);
+                case LAZY -> CompletableFuture.completedFuture(InjectionKind.lazy(dependency));
+            };
+        }
+
+        private CompletableFuture<T> start(Executor executor) {
+            final CompletableFuture<T> future = CompletableFuture.allOf(futures).thenApplyAsync(ignored -> create(), executor);
+            if (promise == null) return future;
+            future.whenComplete((instance, failure) -> {
+                if (failure == null) promise.complete(instance);
+                else release(failure);
+            });
+            return promise;
+        }
+
+        /**
+         * Fails the future of the singleton claimed, if any, and lets a later resolution try again, as one through
+         * {@code get()} would.
+         */
+        private void release(Throwable failure) {
+            if (promise == null) return;
+            node.creating.compareAndSet(promise, null);
+            promise.completeExceptionally(failure);
+        }
+
+        private T create() {
+            final Object[] args = new Object[futures.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = futures[i].join();
+            }
+            return node.complete(args, null);
+        }
+    }
+
+    /**
+     * A node on the stack of {@link Node#construct(Object[], int, Unit)}, with the dependencies it has resolved so far.
+     */
+    private static final class Construction<T> {
+        private final Node<T> node;
+        private final Object[] args;
+        /** the unit of work the dependencies are resolved within, or {@code null} */
+        private final Unit unit;
+        private int pending;
+
+        private Construction(Node<T> node, Object[] args, int pending, Unit unit) {
+            this.node = node;
+            this.args = args;
+            this.pending = pending;
+            this.unit = unit;
+        }
+
+        /**
+         * @param unit the unit of work the node is resolved within, or {@code null}
+         */
+        private static <T> Construction<T> of(Node<T> node, Unit unit) {
+            final Object[] args = new Object[node.dependencies.length];
+            final Unit within = node.within(unit);
+            return new Construction<>(node, args, node.resolveDependencies(args, 0, within), within);
+        }
+    }
+}
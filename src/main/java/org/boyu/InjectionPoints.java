@@ -0,0 +1,194 @@
+package org.boyu;
+
+import jakarta.inject.Inject;
+import org.boyu.exception.IllegalComponentException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.boyu.exception.IllegalComponentException.Reason.MULTI_INJECT_CONSTRUCTORS;
+import static org.boyu.exception.IllegalComponentException.Reason.NO_PROPER_CONSTRUCTOR_FOUND;
+
+/**
+ * The inject constructor, fields and methods of a component class, scanned once per class and JVM. Classes of a
+ * shared hierarchy are scanned once as well, no matter how many components extend them.
+ */
+final class InjectionPoints<T> {
+    private static final ClassValue<InjectionPoints<?>> COMPONENTS = new ClassValue<>() {
+        @Override
+        protected InjectionPoints<?> computeValue(Class<?> type) {
+            return new InjectionPoints<>(type);
+        }
+    };
+
+    private static final ClassValue<DeclaredMembers> DECLARED = new ClassValue<>() {
+        @Override
+        protected DeclaredMembers computeValue(Class<?> type) {
+            return new DeclaredMembers(type);
+        }
+    };
+
+    private final Constructor<T> constructor;
+    private final List<Field> fields;
+    private final List<Method> methods;
+    private final List<Key<?>> dependencies;
+    private final Instantiator<T> instantiator;
+
+    private InjectionPoints(Class<T> impl) {
+        this(getConstructor(impl), getInjectFields(impl), getInjectMethods(impl));
+    }
+
+    private InjectionPoints(Constructor<T> constructor, List<Field> fields, List<Method> methods) {
+        this.constructor = constructor;
+        this.fields = fields;
+        this.methods = methods;
+        this.dependencies = Stream.of(
+                        parameterKeys(constructor),
+                        fields.stream().map(it -> Key.ofInjectionPoint(InjectionKind.normalize(it.getGenericType(), it.getType()), it.getAnnotations())),
+                        methods.stream().flatMap(InjectionPoints::parameterKeys))
+                .flatMap(it -> it)
+                .collect(Collectors.toUnmodifiableList());
+        this.instantiator = Instantiator.of(constructor, fields, methods);
+    }
+
+    static <T> InjectionPoints<T> of(Class<T> impl) {
+        return (InjectionPoints<T>) COMPONENTS.get(impl);
+    }
+
+    /**
+     * Takes injection points found before, e.g. read from a {@link ContainerImage}, instead of scanning for them.
+     */
+    static <T> InjectionPoints<T> of(Constructor<T> constructor, List<Field> fields, List<Method> methods) {
+        return new InjectionPoints<>(constructor, List.copyOf(fields), List.copyOf(methods));
+    }
+
+    Constructor<T> getConstructor() {
+        return constructor;
+    }
+
+    List<Field> getFields() {
+        return fields;
+    }
+
+    List<Method> getMethods() {
+        return methods;
+    }
+
+    /**
+     * @return keys of constructor parameters, then fields, then method parameters
+     */
+    List<Key<?>> getDependencies() {
+        return dependencies;
+    }
+
+    Instantiator<T> getInstantiator() {
+        return instantiator;
+    }
+
+    private static Stream<Key<?>> parameterKeys(Executable executable) {
+        final Class<?>[] erasures = executable.getParameterTypes();
+        final Type[] types = executable.getGenericParameterTypes();
+        final Annotation[][] annotations = executable.getParameterAnnotations();
+        // generic signatures and parameter annotations may leave out synthetic parameters,
+        // e.g. the outer instance of inner classes
+        final int synthetic = erasures.length - annotations.length;
+        return IntStream.range(0, erasures.length).mapToObj(i -> Key.ofInjectionPoint(
+                types.length == erasures.length ? InjectionKind.normalize(types[i], erasures[i]) : erasures[i],
+                i < synthetic ? new Annotation[0] : annotations[i - synthetic]));
+    }
+
+    private static <U> Constructor<U> getConstructor(Class<U> impl) {
+        final List<Constructor<?>> injectConstructors = Arrays.stream(impl.getConstructors())
+                .filter(it -> it.isAnnotationPresent(Inject.class))
+                .toList();
+
+        if (injectConstructors.size() > 1)
+            throw new IllegalComponentException(MULTI_INJECT_CONSTRUCTORS.getValue());
+
+        return (Constructor<U>) injectConstructors.stream()
+                .findFirst()
+                .orElseGet(() -> {
+                    try {
+                        return impl.getDeclaredConstructor();
+                    } catch (NoSuchMethodException e) {
+                        throw new IllegalComponentException(NO_PROPER_CONSTRUCTOR_FOUND.getValue());
+                    }
+                });
+    }
+
+    private static List<Field> getInjectFields(Class<?> impl) {
+        List<Field> injectFields = new ArrayList<>();
+
+        Class<?> current = impl;
+        while (current != Object.class) {
+            injectFields.addAll(DECLARED.get(current).injectFields);
+
+            current = current.getSuperclass();
+        }
+
+        return List.copyOf(injectFields);
+    }
+
+    /**
+     * Supers before subs; an inject method overridden by a sub is injected once, and not at all if the component
+     * class itself overrides it without {@code @Inject}.
+     */
+    private static List<Method> getInjectMethods(Class<?> impl) {
+        final Map<Signature, Method> ownMethods = DECLARED.get(impl).methods;
+        final Set<Signature> injected = new HashSet<>();
+        List<Method> methods = new ArrayList<>();
+        Class<?> current = impl;
+        while (current != Object.class) {
+            for (Map.Entry<Signature, Method> entry : DECLARED.get(current).injectMethods.entrySet()) {
+                final Method own = ownMethods.get(entry.getKey());
+                final boolean subExplicitlyUnWantInjection = own != null && !own.isAnnotationPresent(Inject.class);
+                if (!subExplicitlyUnWantInjection && injected.add(entry.getKey())) {
+                    methods.add(entry.getValue());
+                }
+            }
+
+            current = current.getSuperclass();
+        }
+        Collections.reverse(methods);
+        return List.copyOf(methods);
+    }
+
+    private record Signature(String name, List<Class<?>> parameterTypes) {
+        Signature(Method method) {
+            this(method.getName(), List.of(method.getParameterTypes()));
+        }
+    }
+
+    private static final class DeclaredMembers {
+        private final List<Field> injectFields;
+        private final Map<Signature, Method> methods = new HashMap<>();
+        private final Map<Signature, Method> injectMethods = new LinkedHashMap<>();
+
+        private DeclaredMembers(Class<?> type) {
+            this.injectFields = Arrays.stream(type.getDeclaredFields())
+                    .filter(it -> it.isAnnotationPresent(Inject.class))
+                    .toList();
+            for (Method method : type.getDeclaredMethods()) {
+                final Signature signature = new Signature(method);
+                methods.putIfAbsent(signature, method);
+                if (method.isAnnotationPresent(Inject.class)) injectMethods.putIfAbsent(signature, method);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.boyu;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * How {@link ConstructionInjectionProvider} invokes the inject constructor, fields and methods it found,
+ * given dependencies in the order of {@link ComponentProvider#getDependencies()}.
+ */
+interface Instantiator<T> {
+    /**
+     * Invokes the inject constructor only.
+     */
+    T construct(Object[] dependencies);
+
+    /**
+     * Sets the inject fields, then invokes the inject methods, of an instance made by {@link #construct}.
+     */
+    void inject(T instance, Object[] dependencies);
+
+    default T create(Object[] dependencies) {
+        final T instance = construct(dependencies);
+        inject(instance, dependencies);
+        return instance;
+    }
+
+    /**
+     * Prefers pre-bound method handles, falling back to plain reflection for members not accessible to them.
+     */
+    static <T> Instantiator<T> of(Constructor<T> constructor, List<Field> fields, List<Method> methods) {
+        try {
+            return new MethodHandleInstantiator<>(constructor, fields, methods);
+        } catch (IllegalAccessException e) {
+            return new ReflectiveInstantiator<>(constructor, fields, methods);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.boyu;
+
+import jakarta.inject.Named;
+import jakarta.inject.Qualifier;
+import org.boyu.exception.IllegalComponentException;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.boyu.exception.IllegalComponentException.Reason.MULTI_QUALIFIERS;
+import static org.boyu.exception.IllegalComponentException.Reason.NOT_QUALIFIER;
+
+/**
+ * Identifies a binding: a type, possibly parameterized like {@code List<String>}, plus an optional
+ * {@link Qualifier @Qualifier} annotation such as {@link Named @Named}.
+ * <p>
+ * Keys of plain classes are interned per class, and every key caches its hash code, so looking one up in a map is
+ * about as cheap as looking up a {@link Class}. Other keys are not interned, so that nothing holds on to their types,
+ * nor to the class loaders of those, once no binding uses them. A generic type can also be captured by subclassing:
+ * {@code new Key<List<String>>() {}}.
+ */
+public class Key<T> {
+    private static final ClassValue<Key<?>> CLASS_KEYS = new ClassValue<>() {
+        @Override
+        protected Key<?> computeValue(Class<?> type) {
+            return new Key<>(type, null);
+        }
+    };
+
+    private final Type type;
+    private final Annotation qualifier;
+    private final int hash;
+
+    private Key(Type type, Annotation qualifier) {
+        this.type = type;
+        this.qualifier = qualifier;
+        this.hash = 31 * type.hashCode() + Objects.hashCode(qualifier);
+    }
+
+    /**
+     * Captures the type argument of an anonymous subclass, e.g. {@code new Key<List<String>>() {}}.
+     */
+    protected Key() {
+        if (!(getClass().getGenericSuperclass() instanceof ParameterizedType superclass)) {
+            throw new IllegalStateException("the type argument of a key must be given, e.g. new Key<List<String>>() {}");
+        }
+        this.type = superclass.getActualTypeArguments()[0];
+        this.qualifier = null;
+        this.hash = 31 * type.hashCode();
+    }
+
+    public static <T> Key<T> of(Class<T> type) {
+        return (Key<T>) CLASS_KEYS.get(type);
+    }
+
+    public static Key<?> of(Type type) {
+        return of(type, (Annotation) null);
+    }
+
+    public static <T> Key<T> of(Class<T> type, Annotation qualifier) {
+        return (Key<T>) of((Type) type, qualifier);
+    }
+
+    public static Key<?> of(Type type, Annotation qualifier) {
+        if (qualifier == null && type instanceof Class<?> clazz) return of(clazz);
+        if (qualifier != null && !qualifier.annotationType().isAnnotationPresent(Qualifier.class)) {
+            throw new IllegalComponentException(NOT_QUALIFIER);
+        }
+        return new Key<>(type, qualifier);
+    }
+
+    /**
+     * @return the key of the {@code Set<T>} multibinding of {@code type}
+     */
+    public static <T> Key<Set<T>> setOf(Class<T> type) {
+        return (Key<Set<T>>) of(ParameterizedTypes.of(Set.class, type));
+    }
+
+    /**
+     * @return the key of the {@code Map<K, T>} multibinding of {@code type} by {@code keyType}
+     */
+    public static <K, T> Key<Map<K, T>> mapOf(Class<K> keyType, Class<T> type) {
+        return (Key<Map<K, T>>) of(ParameterizedTypes.of(Map.class, keyType, type));
+    }
+
+    /**
+     * @return the key of {@code type} qualified by {@code @Named(name)}
+     */
+    public static <T> Key<T> named(Class<T> type, String name) {
+        return of(type, new NamedLiteral(name));
+    }
+
+    /**
+     * @return the key of a dependency declared as {@code type} and annotated with {@code annotations}, of which at
+     * most one may be a qualifier
+     */
+    static Key<?> ofInjectionPoint(Type type, Annotation[] annotations) {
+        final List<Annotation> qualifiers = Arrays.stream(annotations)
+                .filter(it -> it.annotationType().isAnnotationPresent(Qualifier.class))
+                .toList();
+        if (qualifiers.size() > 1) throw new IllegalComponentException(MULTI_QUALIFIERS);
+        return of(type, qualifiers.isEmpty() ? null : qualifiers.get(0));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the qualifier, or {@code null} if unqualified
+     */
+    public Annotation getQualifier() {
+        return qualifier;
+    }
+
+    public Class<?> getRawType() {
+        return rawTypeOf(type);
+    }
+
+    static Class<?> rawTypeOf(Type type) {
+        if (type instanceof Class<?> clazz) return clazz;
+        if (type instanceof ParameterizedType parameterized) return (Class<?>) parameterized.getRawType();
+        if (type instanceof GenericArrayType array) return rawTypeOf(array.getGenericComponentType()).arrayType();
+        if (type instanceof TypeVariable<?> variable) return rawTypeOf(variable.getBounds()[0]);
+        if (type instanceof WildcardType wildcard) return rawTypeOf(wildcard.getUpperBounds()[0]);
+        return Object.class;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Key<?> key)) return false;
+        return hash == key.hash && type.equals(key.type) && Objects.equals(qualifier, key.qualifier);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return qualifier == null ? type.getTypeName() : qualifier + " " + type.getTypeName();
+    }
+}
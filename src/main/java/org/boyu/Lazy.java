@@ -0,0 +1,9 @@
+package org.boyu;
+
+/**
+ * Injected in place of {@code T} to defer creating it, and everything it depends on, until {@link #get()} is first
+ * called; later calls return that same instance. Unlike a direct dependency, it may close a dependency cycle.
+ */
+public interface Lazy<T> {
+    T get();
+}
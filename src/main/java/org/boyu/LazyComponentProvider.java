@@ -0,0 +1,35 @@
+package org.boyu;
+
+import jakarta.inject.Provider;
+
+import java.util.List;
+
+/**
+ * Defers creating the actual provider, and so scanning the implementation class, until the binding is first used.
+ */
+class LazyComponentProvider<T> implements ComponentProvider<T> {
+    private final Provider<ComponentProvider<T>> provider;
+
+    LazyComponentProvider(Provider<ComponentProvider<T>> provider) {
+        this.provider = new SingletonProvider<>(provider);
+    }
+
+    @Override
+    public T get(Context context) {
+        return provider.get().get(context);
+    }
+
+    @Override
+    public List<Key<?>> getDependencies() {
+        return provider.get().getDependencies();
+    }
+
+    @Override
+    public T create(Object[] dependencies) {
+        return provider.get().create(dependencies);
+    }
+
+    ComponentProvider<T> getDelegate() {
+        return provider.get();
+    }
+}
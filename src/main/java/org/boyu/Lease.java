@@ -0,0 +1,39 @@
+package org.boyu;
+
+import java.util.function.Consumer;
+
+/**
+ * An instance got by {@link Context#lease(Key)}, for its holder's use only until {@link #close() closed}, which
+ * returns a {@link Pooled} instance to its pool. Meant for try-with-resources; not to be shared between threads.
+ */
+public final class Lease<T> implements AutoCloseable {
+    private final T instance;
+    private final Consumer<T> giveBack;
+    private boolean closed;
+
+    /**
+     * @param giveBack what takes the instance back on close, or {@code null} if nothing does
+     */
+    Lease(T instance, Consumer<T> giveBack) {
+        this.instance = instance;
+        this.giveBack = giveBack;
+    }
+
+    /**
+     * @throws IllegalStateException if the lease was closed already
+     */
+    public T get() {
+        if (closed) throw new IllegalStateException("lease closed already");
+        return instance;
+    }
+
+    /**
+     * Returns the instance; closing again does nothing.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        if (giveBack != null) giveBack.accept(instance);
+    }
+}
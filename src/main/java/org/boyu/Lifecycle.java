@@ -0,0 +1,121 @@
+package org.boyu;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.boyu.exception.IllegalComponentException;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.boyu.exception.IllegalComponentException.Reason.ILLEGAL_LIFECYCLE_METHOD;
+
+/**
+ * The {@link PostConstruct}, {@link PreDestroy} and {@link Pooled.Reset} methods of a component class, scanned once
+ * per class and JVM.
+ * Like inject methods, those of supers come before those of subs; a method overridden by a sub is invoked once, and
+ * not at all if the sub overrides it without the annotation.
+ */
+final class Lifecycle {
+    private static final ClassValue<Lifecycle> CLASSES = new ClassValue<>() {
+        @Override
+        protected Lifecycle computeValue(Class<?> type) {
+            return new Lifecycle(type);
+        }
+    };
+
+    private final List<Method> postConstructs;
+    private final List<Method> preDestroys;
+    private final List<Method> resets;
+
+    private Lifecycle(Class<?> impl) {
+        this.postConstructs = getLifecycleMethods(impl, PostConstruct.class);
+        this.preDestroys = getLifecycleMethods(impl, PreDestroy.class);
+        this.resets = getLifecycleMethods(impl, Pooled.Reset.class);
+    }
+
+    /**
+     * @throws IllegalComponentException if a lifecycle method is static or takes parameters
+     */
+    static Lifecycle of(Class<?> impl) {
+        return CLASSES.get(impl);
+    }
+
+    boolean isEmpty() {
+        return postConstructs.isEmpty() && preDestroys.isEmpty() && resets.isEmpty();
+    }
+
+    boolean hasPreDestroy() {
+        return !preDestroys.isEmpty();
+    }
+
+    void postConstruct(Object instance) {
+        invokeAll(postConstructs, instance);
+    }
+
+    void preDestroy(Object instance) {
+        invokeAll(preDestroys, instance);
+    }
+
+    void reset(Object instance) {
+        invokeAll(resets, instance);
+    }
+
+    private static void invokeAll(List<Method> methods, Object instance) {
+        try {
+            for (Method method : methods) {
+                method.invoke(instance);
+            }
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw new RuntimeException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Walks from {@code impl} up, keeping each class's methods in their declared order, then lays the classes out
+     * supers first.
+     */
+    private static List<Method> getLifecycleMethods(Class<?> impl, Class<? extends Annotation> annotation) {
+        final List<Method> subMethods = new ArrayList<>();
+        final Deque<List<Method>> hierarchy = new ArrayDeque<>();
+        for (Class<?> current = impl; current != null && current != Object.class; current = current.getSuperclass()) {
+            final List<Method> own = new ArrayList<>();
+            for (Method method : current.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(annotation) || subMethods.stream().anyMatch(sub -> overrides(sub, method))) continue;
+                if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() > 0) {
+                    throw new IllegalComponentException(ILLEGAL_LIFECYCLE_METHOD);
+                }
+                method.trySetAccessible();
+                own.add(method);
+            }
+            for (Method method : current.getDeclaredMethods()) {
+                if (method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers())) subMethods.add(method);
+            }
+            hierarchy.push(own);
+        }
+        final List<Method> methods = new ArrayList<>();
+        hierarchy.forEach(methods::addAll);
+        return List.copyOf(methods);
+    }
+
+    /**
+     * Whether {@code sub}, declared by a subclass, overrides {@code method}, taking no parameters: a private or static
+     * method is never overridden, a package-private one only from the same package.
+     */
+    private static boolean overrides(Method sub, Method method) {
+        if (!sub.getName().equals(method.getName()) || Modifier.isPrivate(sub.getModifiers())) return false;
+        final int modifiers = method.getModifiers();
+        if (Modifier.isPrivate(modifiers) || Modifier.isStatic(modifiers)) return false;
+        if (Modifier.isPublic(modifiers) || Modifier.isProtected(modifiers)) return true;
+        return sub.getDeclaringClass().getPackageName().equals(method.getDeclaringClass().getPackageName());
+    }
+}
@@ -0,0 +1,58 @@
+package org.boyu;
+
+import org.boyu.exception.IllegalComponentException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.boyu.exception.IllegalComponentException.Reason.DUPLICATE_MAP_KEY;
+
+/**
+ * Provides a {@code Map} multibinding as an unmodifiable map of its elements, in the order contributed; resolved
+ * like {@link SetProvider}.
+ */
+class MapProvider<K, T> implements ComponentProvider<Map<K, T>> {
+    private final List<K> keys;
+    private final List<Key<?>> elements;
+
+    MapProvider() {
+        this(List.of(), List.of());
+    }
+
+    private MapProvider(List<K> keys, List<Key<?>> elements) {
+        this.keys = keys;
+        this.elements = elements;
+    }
+
+    MapProvider<K, T> with(K key, Key<?> element) {
+        if (keys.contains(key)) throw new IllegalComponentException(DUPLICATE_MAP_KEY);
+        return new MapProvider<>(Stream.concat(keys.stream(), Stream.of(key)).toList(),
+                Stream.concat(elements.stream(), Stream.of(element)).toList());
+    }
+
+    @Override
+    public Map<K, T> get(Context context) {
+        final Object[] dependencies = new Object[elements.size()];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencies[i] = context.require(elements.get(i));
+        }
+        return create(dependencies);
+    }
+
+    @Override
+    public List<Key<?>> getDependencies() {
+        return elements;
+    }
+
+    @Override
+    public Map<K, T> create(Object[] dependencies) {
+        final Map<K, T> map = new LinkedHashMap<>();
+        for (int i = 0; i < dependencies.length; i++) {
+            map.put(keys.get(i), (T) dependencies[i]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
@@ -0,0 +1,92 @@
+package org.boyu;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Binds the inject constructor, fields and methods into method handles once, each taking the whole dependency
+ * array and picking its own slots from it, so creating a component is a handful of direct invocations.
+ */
+class MethodHandleInstantiator<T> implements Instantiator<T> {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle ELEMENT = MethodHandles.arrayElementGetter(Object[].class);
+
+    /** (Object[])Object */
+    private final MethodHandle constructor;
+    /** (Object, Object[])void each, fields first, then methods */
+    private final MethodHandle[] injectors;
+
+    MethodHandleInstantiator(Constructor<T> constructor, List<Field> fields, List<Method> methods) throws IllegalAccessException {
+        int next = 0;
+        this.constructor = spread(LOOKUP.unreflectConstructor(constructor), 0, next);
+        next += constructor.getParameterCount();
+
+        this.injectors = new MethodHandle[fields.size() + methods.size()];
+        int i = 0;
+        for (Field field : fields) {
+            injectors[i++] = spread(LOOKUP.unreflectSetter(field), 1, next++);
+        }
+        for (Method method : methods) {
+            injectors[i++] = spread(LOOKUP.unreflect(method), 1, next);
+            next += method.getParameterCount();
+        }
+    }
+
+    @Override
+    public T construct(Object[] dependencies) {
+        try {
+            return (T) (Object) constructor.invokeExact(dependencies);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void inject(T instance, Object[] dependencies) {
+        try {
+            for (MethodHandle injector : injectors) {
+                injector.invokeExact((Object) instance, dependencies);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Turns a handle whose parameters after the first {@code leading} ones are dependencies into one that takes
+     * the dependency array instead, reading those parameters from consecutive slots starting at {@code offset}.
+     */
+    private static MethodHandle spread(MethodHandle target, int leading, int offset) {
+        final int arity = target.type().parameterCount() - leading;
+        final boolean returnsInstance = leading == 0;
+        MethodHandle handle = target.asType(MethodType.genericMethodType(leading + arity)
+                .changeReturnType(returnsInstance ? Object.class : void.class));
+        if (arity == 0) {
+            return MethodHandles.dropArguments(handle, leading, Object[].class);
+        }
+
+        final MethodHandle[] slots = new MethodHandle[arity];
+        for (int i = 0; i < arity; i++) {
+            slots[i] = MethodHandles.insertArguments(ELEMENT, 1, offset + i);
+        }
+        handle = MethodHandles.filterArguments(handle, leading, slots);
+
+        final int[] reorder = new int[leading + arity];
+        for (int i = leading; i < reorder.length; i++) {
+            reorder[i] = leading;
+        }
+        final MethodType spreadType = returnsInstance
+                ? MethodType.methodType(Object.class, Object[].class)
+                : MethodType.methodType(void.class, Object.class, Object[].class);
+        return MethodHandles.permuteArguments(handle, spreadType, reorder);
+    }
+}
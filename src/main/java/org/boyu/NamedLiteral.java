@@ -0,0 +1,42 @@
+package org.boyu;
+
+import jakarta.inject.Named;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * An instance of {@code @Named(value)}, equal to, and hashing like, the annotation the JVM makes for
+ * {@code @Named(value)} on an injection point, as {@link Annotation} requires.
+ */
+final class NamedLiteral implements Named {
+    private final String value;
+
+    NamedLiteral(String value) {
+        this.value = value;
+    }
+
+    @Override
+    public String value() {
+        return value;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return Named.class;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Named named && value.equals(named.value());
+    }
+
+    @Override
+    public int hashCode() {
+        return (127 * "value".hashCode()) ^ value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "@" + Named.class.getName() + "(\"" + value + "\")";
+    }
+}
@@ -0,0 +1,33 @@
+package org.boyu;
+
+import jakarta.inject.Scope;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Scopes a costly component that is not thread-safe: instances are handed out one holder at a time by
+ * {@link Context#lease(Key)} and reused once returned, instead of being built anew for each use. Getting or injecting
+ * it takes an idle instance as well, or builds one, but never returns it.
+ */
+@Scope
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Pooled {
+    /**
+     * The most idle instances kept for reuse. Leases are never refused: beyond that many, instances are built as
+     * needed and dropped on return.
+     */
+    int size() default 16;
+
+    /**
+     * Marks a method without parameters invoked on every instance returned to the pool, before anyone may lease it
+     * again; an instance whose reset fails is dropped.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @interface Reset {
+    }
+}
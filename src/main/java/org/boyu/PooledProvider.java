@@ -0,0 +1,118 @@
+package org.boyu;
+
+import jakarta.inject.Provider;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps up to {@link Pooled#size()} idle instances of one binding in an array of slots, each taken and filled by a
+ * single compare-and-set, without any lock. Each thread starts probing at a slot of its own, so threads on different
+ * cores mostly touch different slots instead of contending for a shared head.
+ */
+class PooledProvider<T> implements Provider<T> {
+    /** as {@link Pooled#size()} */
+    private static final int DEFAULT_SIZE = 16;
+
+    /**
+     * Registered for {@link Pooled} by default; {@link #scopeOf(Class)} configures it per bound class.
+     */
+    static final ScopeProvider SCOPE = new ScopeProvider() {
+        @Override
+        public <S> Provider<S> scope(Provider<S> unscoped) {
+            return new PooledProvider<>(unscoped, DEFAULT_SIZE, null);
+        }
+    };
+
+    private final Provider<T> unscoped;
+    private final AtomicReferenceArray<T> idle;
+    private final Lifecycle lifecycle;
+    private volatile boolean closed;
+
+    /**
+     * @param lifecycle resets returned instances and destroys dropped ones, or {@code null}
+     */
+    PooledProvider(Provider<T> unscoped, int size, Lifecycle lifecycle) {
+        this.unscoped = unscoped;
+        this.idle = new AtomicReferenceArray<>(Math.max(size, 1));
+        this.lifecycle = lifecycle;
+    }
+
+    /**
+     * @return the scope of {@code impl}, pooled as annotated on it
+     */
+    static ScopeProvider scopeOf(Class<?> impl) {
+        final Pooled pooled = impl.getAnnotation(Pooled.class);
+        final int size = pooled == null ? DEFAULT_SIZE : pooled.size();
+        final Lifecycle lifecycle = Lifecycle.of(impl);
+        return new ScopeProvider() {
+            @Override
+            public <S> Provider<S> scope(Provider<S> unscoped) {
+                return new PooledProvider<>(unscoped, size, lifecycle.isEmpty() ? null : lifecycle);
+            }
+        };
+    }
+
+    /**
+     * Takes an idle instance, or creates one if there is none; it is not returned.
+     */
+    @Override
+    public T get() {
+        final int start = stripe();
+        for (int i = 0; i < idle.length(); i++) {
+            final int slot = (start + i) % idle.length();
+            final T instance = idle.get(slot);
+            if (instance != null && idle.compareAndSet(slot, instance, null)) return instance;
+        }
+        return unscoped.get();
+    }
+
+    Lease<T> lease() {
+        return new Lease<>(get(), this::giveBack);
+    }
+
+    /**
+     * Resets {@code instance} and keeps it for the next lease, unless the pool is full or closed already.
+     */
+    void giveBack(T instance) {
+        if (lifecycle != null) {
+            try {
+                lifecycle.reset(instance);
+            } catch (RuntimeException e) {
+                drop(instance);
+                throw e;
+            }
+        }
+        if (!closed) {
+            final int start = stripe();
+            for (int i = 0; i < idle.length(); i++) {
+                final int slot = (start + i) % idle.length();
+                if (idle.compareAndSet(slot, null, instance)) {
+                    // a close racing with this return may have drained the pool already; whoever takes it back drops it
+                    if (closed && idle.compareAndSet(slot, instance, null)) drop(instance);
+                    return;
+                }
+            }
+        }
+        drop(instance);
+    }
+
+    /**
+     * Drops every idle instance, and every instance returned from now on.
+     */
+    void close() {
+        closed = true;
+        for (int slot = 0; slot < idle.length(); slot++) {
+            final T instance = idle.getAndSet(slot, null);
+            if (instance != null) drop(instance);
+        }
+    }
+
+    private void drop(T instance) {
+        if (lifecycle != null) lifecycle.preDestroy(instance);
+    }
+
+    private int stripe() {
+        // Fibonacci hashing spreads consecutive thread ids over the slots
+        return (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 33) % idle.length();
+    }
+}
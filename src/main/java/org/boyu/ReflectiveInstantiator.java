@@ -0,0 +1,63 @@
+package org.boyu;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Invokes the inject constructor, fields and methods reflectively, for members method handles cannot access. What
+ * they throw surfaces as {@link MethodHandleInstantiator} lets it: unchecked as is, checked wrapped in a
+ * {@link RuntimeException}.
+ */
+class ReflectiveInstantiator<T> implements Instantiator<T> {
+    private final Constructor<T> injectConstructor;
+    private final List<Field> injectFields;
+    private final List<Method> injectMethods;
+
+    ReflectiveInstantiator(Constructor<T> injectConstructor, List<Field> injectFields, List<Method> injectMethods) {
+        this.injectConstructor = injectConstructor;
+        this.injectFields = injectFields;
+        this.injectMethods = injectMethods;
+    }
+
+    @Override
+    public T construct(Object[] dependencies) {
+        try {
+            return injectConstructor.newInstance(Arrays.copyOfRange(dependencies, 0, injectConstructor.getParameterCount()));
+        } catch (InvocationTargetException e) {
+            throw unwrap(e);
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void inject(T instance, Object[] dependencies) {
+        try {
+            int next = injectConstructor.getParameterCount();
+
+            for (Field field : injectFields) {
+                field.set(instance, dependencies[next++]);
+            }
+
+            for (Method method : injectMethods) {
+                final int arity = method.getParameterCount();
+                method.invoke(instance, Arrays.copyOfRange(dependencies, next, next + arity));
+                next += arity;
+            }
+        } catch (InvocationTargetException e) {
+            throw unwrap(e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static RuntimeException unwrap(InvocationTargetException e) {
+        if (e.getCause() instanceof RuntimeException cause) return cause;
+        if (e.getCause() instanceof Error cause) throw cause;
+        return new RuntimeException(e.getCause());
+    }
+}
@@ -0,0 +1,18 @@
+package org.boyu;
+
+import jakarta.inject.Scope;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Scopes a component to a unit of work, e.g. a request: each {@link UnitOfWork} holds one instance, shared by
+ * everything resolved from it, and lets go of it when closed. Resolving it outside a unit of work fails.
+ */
+@Scope
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface RequestScoped {
+}
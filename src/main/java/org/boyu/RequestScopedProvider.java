@@ -0,0 +1,24 @@
+package org.boyu;
+
+import jakarta.inject.Provider;
+
+/**
+ * Stands for a {@link RequestScoped} binding in the plan, which keeps its instances in the {@link UnitOfWork}
+ * resolving it instead; got without one, it fails.
+ */
+class RequestScopedProvider<T> implements Provider<T> {
+    static final ScopeProvider SCOPE = new ScopeProvider() {
+        @Override
+        public <S> Provider<S> scope(Provider<S> unscoped) {
+            return new RequestScopedProvider<>();
+        }
+    };
+
+    /**
+     * @throws IllegalStateException always
+     */
+    @Override
+    public T get() {
+        throw new IllegalStateException("@RequestScoped component resolved outside a unit of work");
+    }
+}
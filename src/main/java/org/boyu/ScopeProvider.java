@@ -0,0 +1,15 @@
+package org.boyu;
+
+import jakarta.inject.Provider;
+
+/**
+ * Decides when a scoped binding creates a new instance, registered for a {@link jakarta.inject.Scope} annotation
+ * via {@link ContextConfig#scope(Class, ScopeProvider)}. Each context built by {@link ContextConfig#getContext()}
+ * asks for its own scoped provider per binding.
+ */
+public interface ScopeProvider {
+    /**
+     * @param unscoped creates a brand-new instance with all its dependencies every time it is called
+     */
+    <T> Provider<T> scope(Provider<T> unscoped);
+}
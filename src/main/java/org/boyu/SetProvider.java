@@ -0,0 +1,48 @@
+package org.boyu;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Provides a {@code Set} multibinding as an unmodifiable set of its elements, in the order contributed. Elements
+ * are its dependencies, so the compiled plan resolves all of them in one pass over its dependency array.
+ * Immutable: each contribution makes a new provider.
+ */
+class SetProvider<T> implements ComponentProvider<Set<T>> {
+    private final List<Key<?>> elements;
+
+    SetProvider() {
+        this(List.of());
+    }
+
+    private SetProvider(List<Key<?>> elements) {
+        this.elements = elements;
+    }
+
+    SetProvider<T> with(Key<?> element) {
+        return new SetProvider<>(Stream.concat(elements.stream(), Stream.of(element)).toList());
+    }
+
+    @Override
+    public Set<T> get(Context context) {
+        final Object[] dependencies = new Object[elements.size()];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencies[i] = context.require(elements.get(i));
+        }
+        return create(dependencies);
+    }
+
+    @Override
+    public List<Key<?>> getDependencies() {
+        return elements;
+    }
+
+    @Override
+    public Set<T> create(Object[] dependencies) {
+        return Collections.unmodifiableSet(new LinkedHashSet<>((List<T>) Arrays.asList(dependencies)));
+    }
+}
@@ -0,0 +1,49 @@
+package org.boyu;
+
+import jakarta.inject.Provider;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Creates the instance exactly once, on first use. Once created, reading it is a single volatile read;
+ * only threads racing for the very first instance wait, on a lock of this binding alone.
+ */
+class SingletonProvider<T> implements Provider<T> {
+    private final Provider<T> unscoped;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile T instance;
+
+    SingletonProvider(Provider<T> unscoped) {
+        this.unscoped = unscoped;
+    }
+
+    @Override
+    public T get() {
+        return getOrCreate(unscoped);
+    }
+
+    boolean isCreated() {
+        return instance != null;
+    }
+
+    /**
+     * Same as {@link #get()}, but creates the first instance with {@code creating}, for callers which already
+     * resolved its dependencies.
+     */
+    T getOrCreate(Provider<T> creating) {
+        T result = instance;
+        if (result != null) return result;
+
+        lock.lock();
+        try {
+            result = instance;
+            if (result == null) {
+                result = creating.get();
+                instance = result;
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.boyu;
+
+import java.util.concurrent.Executor;
+
+/**
+ * A view of a {@link Context} for one unit of work, got by {@link Context#openUnitOfWork()}, which holds the
+ * {@link RequestScoped} components resolved through it. It is an ordinary object passed along with the work, not
+ * bound to any thread, so nothing outlives it: once closed and dropped, its components are garbage like any other.
+ * Like the work it belongs to, it is meant for one thread at a time, and is not safe to resolve from concurrently.
+ * <p>
+ * Only unscoped components resolved from the unit carry it to their dependencies. Singletons, pooled components and
+ * other scopes outlive any single unit, so they cannot depend on a {@link RequestScoped} component, not even through
+ * a provider.
+ */
+public interface UnitOfWork extends Context {
+    /**
+     * Ends the unit of work, invoking the {@code @PreDestroy} methods of its {@link RequestScoped} components, each
+     * after those of components created after it. Closing again does nothing; the context itself stays open.
+     */
+    @Override
+    void close();
+
+    @Override
+    default void close(Executor executor) {
+        close();
+    }
+}
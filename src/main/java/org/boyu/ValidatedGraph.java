@@ -0,0 +1,87 @@
+package org.boyu;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * What the last successful validation of a {@link ContextConfig} established, so that the next one only re-checks
+ * the bindings {@link #changed} since, and those depending on them directly or transitively: a missing dependency
+ * can only hang off a changed binding, and a new cycle must run through one, hence through everything reaching it.
+ * Adding bindings in waves thus costs about as much as the waves, not the whole graph each time.
+ */
+final class ValidatedGraph {
+    /** the direct (not deferred) dependencies of each binding validated, bound in the same config */
+    private final Map<Key<?>, List<Key<?>>> dependencies = new HashMap<>();
+    private final Map<Key<?>, Set<Key<?>>> dependents = new HashMap<>();
+    private final Set<Key<?>> changed = new HashSet<>();
+
+    void changed(Key<?> key) {
+        changed.add(key);
+    }
+
+    /**
+     * Validates {@code providers}, which hold every binding validated before plus those changed since.
+     *
+     * @param inherited what a parent context provides, taken as valid
+     * @return the bindings re-checked, each after its direct dependencies
+     */
+    List<Key<?>> check(Map<Key<?>, ComponentProvider<?>> providers, Predicate<Key<?>> inherited) {
+        final Set<Key<?>> affected = dependentsOf(changed);
+        final List<Key<?>> order = DependencyChecker.check(providers, affected,
+                key -> dependencies.containsKey(key) && !affected.contains(key) || inherited.test(key));
+        affected.forEach(key -> update(key, providers));
+        changed.clear();
+        return order;
+    }
+
+    /**
+     * @return every binding validated or changed, each after its direct dependencies; valid after {@link #check} only
+     */
+    List<Key<?>> order() {
+        final Map<Key<?>, Integer> pending = new HashMap<>();
+        final Deque<Key<?>> ready = new ArrayDeque<>();
+        dependencies.forEach((key, direct) -> {
+            pending.put(key, direct.size());
+            if (direct.isEmpty()) ready.add(key);
+        });
+        final List<Key<?>> order = new ArrayList<>(dependencies.size());
+        while (!ready.isEmpty()) {
+            final Key<?> key = ready.poll();
+            order.add(key);
+            dependents.getOrDefault(key, Set.of()).forEach(dependent -> {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) ready.add(dependent);
+            });
+        }
+        return order;
+    }
+
+    private Set<Key<?>> dependentsOf(Set<Key<?>> keys) {
+        final Set<Key<?>> found = new HashSet<>(keys);
+        final Deque<Key<?>> next = new ArrayDeque<>(keys);
+        while (!next.isEmpty()) {
+            dependents.getOrDefault(next.poll(), Set.of()).forEach(dependent -> {
+                if (found.add(dependent)) next.add(dependent);
+            });
+        }
+        return found;
+    }
+
+    private void update(Key<?> key, Map<Key<?>, ComponentProvider<?>> providers) {
+        dependencies.getOrDefault(key, List.of()).forEach(it -> dependents.get(it).remove(key));
+        final List<Key<?>> direct = providers.get(key).getDependencies().stream()
+                .filter(it -> !InjectionKind.of(it).isDeferred())
+                .<Key<?>>map(InjectionKind::componentOf)
+                .filter(providers::containsKey)
+                .distinct()
+                .toList();
+        dependencies.put(key, direct);
+        direct.forEach(it -> dependents.computeIfAbsent(it, dependency -> new HashSet<>()).add(key));
+    }
+}
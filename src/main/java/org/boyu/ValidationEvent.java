@@ -0,0 +1,15 @@
+package org.boyu;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.boyu.Validation")
+@Label("Graph Validation")
+@Category("DI Container")
+@Description("Validating and compiling bindings into a context")
+class ValidationEvent extends jdk.jfr.Event {
+    @Label("Bindings")
+    int bindings;
+}
@@ -1,14 +1,25 @@
 package org.boyu.exception;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.Stack;
 
 public class CyclicDependenciesFoundException extends RuntimeException {
     private List<Class<?>> componentTypes = new ArrayList<>();
+    private List<List<Class<?>>> cycles = new ArrayList<>();
 
     public CyclicDependenciesFoundException(Stack<Class<?>> visiting) {
         this.componentTypes.addAll(visiting);
+        this.cycles.add(List.copyOf(visiting));
+    }
+
+    public CyclicDependenciesFoundException(List<List<Class<?>>> cycles) {
+        final Set<Class<?>> involved = new LinkedHashSet<>();
+        cycles.forEach(involved::addAll);
+        this.componentTypes.addAll(involved);
+        cycles.forEach(cycle -> this.cycles.add(List.copyOf(cycle)));
     }
 
     @Override
@@ -16,7 +27,17 @@ public class CyclicDependenciesFoundException extends RuntimeException {
         return "found cyclic dependencies which are not allowed";
     }
 
+    /**
+     * @return every component involved in any of the {@link #getCycles() cycles}, without duplicates
+     */
     public List<Class<?>> getComponentTypes() {
         return componentTypes;
     }
+
+    /**
+     * @return each cycle found, as the components along it in dependency order
+     */
+    public List<List<Class<?>>> getCycles() {
+        return cycles;
+    }
 }
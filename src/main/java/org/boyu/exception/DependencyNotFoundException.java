@@ -1,13 +1,32 @@
 package org.boyu.exception;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.boyu.Key;
 
 @Getter
-@AllArgsConstructor
 public class DependencyNotFoundException extends RuntimeException {
-    private final Class<?> componentType;
-    private final Class<?> dependencyType;
+    private final Key<?> component;
+    private final Key<?> dependency;
+
+    public DependencyNotFoundException(Key<?> component, Key<?> dependency) {
+        this.component = component;
+        this.dependency = dependency;
+    }
+
+    public DependencyNotFoundException(Class<?> componentType, Class<?> dependencyType) {
+        this(Key.of(componentType), Key.of(dependencyType));
+    }
+
+    /**
+     * @return the component depending on the missing one, or {@code null} if it was required from the context directly
+     */
+    public Class<?> getComponentType() {
+        return component == null ? null : component.getRawType();
+    }
+
+    public Class<?> getDependencyType() {
+        return dependency.getRawType();
+    }
 
     @Override
     public String getMessage() {
@@ -19,7 +19,14 @@ public class IllegalComponentException extends RuntimeException {
     public enum Reason {
         MULTI_INJECT_CONSTRUCTORS("cannot have multi @Inject constructors"),
         NO_PROPER_CONSTRUCTOR_FOUND("no @Inject nor no arg constructor found"),
-        ABSTRACT_CLASS_NOT_ALLOWED("cannot bind non-instantiatable classes (i.e. abstract class or interface)");
+        ABSTRACT_CLASS_NOT_ALLOWED("cannot bind non-instantiatable classes (i.e. abstract class or interface)"),
+        MULTI_SCOPES("cannot have multi scope annotations"),
+        UNKNOWN_SCOPE("no scope provider registered for the scope annotation"),
+        MULTI_QUALIFIERS("cannot have multi qualifier annotations on one injection point"),
+        NOT_QUALIFIER("a binding can only be qualified by an annotation annotated with @Qualifier"),
+        DUPLICATE_MAP_KEY("cannot contribute twice to the same key of a map multibinding"),
+        NOT_MULTIBINDING("the key is bound to something other than a multibinding of that kind"),
+        ILLEGAL_LIFECYCLE_METHOD("@PostConstruct, @PreDestroy and @Pooled.Reset methods can neither be static nor take parameters");
 
         private String value;
 
@@ -0,0 +1,11 @@
+package org.boyu;
+
+import jakarta.inject.Inject;
+
+import java.io.Serializable;
+
+class ComponentWithJdkInterface implements Component, Serializable {
+    @Inject
+    public ComponentWithJdkInterface() {
+    }
+}
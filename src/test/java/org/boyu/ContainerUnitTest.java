@@ -1,24 +1,69 @@
 package org.boyu;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Provider;
+import jakarta.inject.Qualifier;
+import jakarta.inject.Scope;
+import jakarta.inject.Singleton;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.boyu.exception.CyclicDependenciesFoundException;
 import org.boyu.exception.DependencyNotFoundException;
 import org.boyu.exception.IllegalComponentException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.boyu.exception.IllegalComponentException.Reason.ABSTRACT_CLASS_NOT_ALLOWED;
+import static org.boyu.exception.IllegalComponentException.Reason.DUPLICATE_MAP_KEY;
+import static org.boyu.exception.IllegalComponentException.Reason.ILLEGAL_LIFECYCLE_METHOD;
 import static org.boyu.exception.IllegalComponentException.Reason.MULTI_INJECT_CONSTRUCTORS;
+import static org.boyu.exception.IllegalComponentException.Reason.MULTI_QUALIFIERS;
+import static org.boyu.exception.IllegalComponentException.Reason.MULTI_SCOPES;
 import static org.boyu.exception.IllegalComponentException.Reason.NO_PROPER_CONSTRUCTOR_FOUND;
+import static org.boyu.exception.IllegalComponentException.Reason.UNKNOWN_SCOPE;
 import static org.mockito.BDDMockito.given;
 
 public class ContainerUnitTest {
@@ -102,6 +147,47 @@ public class ContainerUnitTest {
                     assertThat(innerDependency).isNotNull().isEqualTo("indirect dependency");
                 }
 
+                @Test
+                void should_not_see_bindings_made_after_context_got() {
+                    // given
+                    final Dependency dependency = new Dependency() {
+                    };
+                    config.bind(Dependency.class, dependency);
+                    final Context context = config.getContext();
+
+                    // when
+                    config.bind(Dependency.class, new Dependency() {
+                    });
+                    config.bind(Component.class, ComponentWithDefaultConstructor.class);
+
+                    // then
+                    assertThat(context.get(Dependency.class).get()).isSameAs(dependency);
+                    assertThat(context.get(Component.class)).isEmpty();
+                    assertThat(config.getContext().get(Component.class)).isPresent();
+                }
+
+                @Test
+                void should_resolve_from_many_threads_concurrently() throws Exception {
+                    // given
+                    config.bind(Dependency.class, DependencyWithInjectorConstructor.class);
+                    config.bind(String.class, "indirect dependency");
+                    config.bind(Component.class, ComponentWithInjectConstructor.class);
+                    final Context context = config.getContext();
+                    final ExecutorService executor = Executors.newFixedThreadPool(64);
+
+                    // when
+                    final List<Future<Component>> futures = new ArrayList<>();
+                    for (int i = 0; i < 1000; i++) {
+                        futures.add(executor.submit(() -> context.get(Component.class).get()));
+                    }
+
+                    // then
+                    for (Future<Component> future : futures) {
+                        assertThat(future.get()).isInstanceOf(ComponentWithInjectConstructor.class);
+                    }
+                    executor.shutdown();
+                }
+
                 @Test
                 void should_return_empty_when_get_given_component_undefined() {
                     // when
@@ -110,6 +196,30 @@ public class ContainerUnitTest {
                     // then
                     assertThat(component).isEmpty();
                 }
+
+                @Test
+                void should_require_component_without_optional() {
+                    // given
+                    config.bind(Dependency.class, DependencyWithInjectorConstructor.class);
+                    config.bind(String.class, "indirect dependency");
+
+                    // when
+                    final Dependency dependency = config.getContext().require(Dependency.class);
+
+                    // then
+                    assertThat(((DependencyWithInjectorConstructor) dependency).getDependency()).isEqualTo("indirect dependency");
+                }
+
+                @Test
+                void should_throw_exception_when_require_given_component_undefined() {
+                    // when
+                    final Throwable exception = catchThrowable(() -> config.getContext().require(Component.class));
+
+                    // then
+                    assertThat(exception).isInstanceOf(DependencyNotFoundException.class);
+                    assertThat(((DependencyNotFoundException) exception).getDependencyType()).isEqualTo(Component.class);
+                    assertThat(((DependencyNotFoundException) exception).getComponentType()).isNull();
+                }
             }
 
             @Nested
@@ -212,6 +322,38 @@ public class ContainerUnitTest {
                             .hasMessageContaining("found cyclic dependencies which are not allowed");
                 }
 
+                static class CycleOneEnd {
+                    @Inject
+                    public CycleOneEnd(CycleAnotherEnd anotherEnd) {
+                    }
+                }
+
+                static class CycleAnotherEnd {
+                    @Inject
+                    public CycleAnotherEnd(CycleOneEnd oneEnd) {
+                    }
+                }
+
+                @Test
+                void should_report_every_cycle_given_multi_cyclic_dependencies_found() {
+                    // given: A -> B -> A, C -> A, D -> E -> D
+                    config.bind(Component.class, ComponentWithInjectConstructor.class);
+                    config.bind(Dependency.class, DependencyDependedOnComponent.class);
+                    config.bind(AnotherDependency.class, AnotherDepDependedOnComp.class);
+                    config.bind(CycleOneEnd.class, CycleOneEnd.class);
+                    config.bind(CycleAnotherEnd.class, CycleAnotherEnd.class);
+
+                    // when
+                    final Throwable throwable = catchThrowable(() -> config.getContext());
+
+                    // then
+                    assertThat(throwable).isInstanceOf(CyclicDependenciesFoundException.class);
+                    final CyclicDependenciesFoundException exception = (CyclicDependenciesFoundException) throwable;
+                    assertThat(exception.getCycles()).hasSize(2);
+                    assertThat(exception.getComponentTypes())
+                            .containsExactlyInAnyOrder(Component.class, Dependency.class, CycleOneEnd.class, CycleAnotherEnd.class);
+                }
+
                 @Test
                 void should_throw_exception_if_component_is_abstract() {
                     // when + then
@@ -268,8 +410,8 @@ public class ContainerUnitTest {
                 // given
                 Context context = Mockito.mock(Context.class); // stub
                 Dependency dependency = Mockito.mock(Dependency.class); // stub
-                given(context.get(Dependency.class))
-                        .willReturn(Optional.of(dependency));
+                given(context.require(Key.of(Dependency.class)))
+                        .willReturn(dependency);
 
                 final ConstructionInjectionProvider<ComponentWithInjectConstructor> provider = new ConstructionInjectionProvider<>(ComponentWithInjectConstructor.class);
 
@@ -302,7 +444,7 @@ public class ContainerUnitTest {
                 // when
 
                 // then
-                assertThat(provider.getDependencies()).containsExactlyInAnyOrder(Dependency.class);
+                assertThat(provider.getDependencies()).containsExactlyInAnyOrder(Key.of(Dependency.class));
             }
 
             @Test
@@ -379,10 +521,10 @@ public class ContainerUnitTest {
                 final ConstructionInjectionProvider<InjectMethodWithDependency> provider = new ConstructionInjectionProvider<>(InjectMethodWithDependency.class);
 
                 // when
-                final List<Class<?>> dependencies = provider.getDependencies();
+                final List<Key<?>> dependencies = provider.getDependencies();
 
                 // then
-                assertThat(dependencies).containsExactlyInAnyOrder(Dependency.class);
+                assertThat(dependencies).containsExactlyInAnyOrder(Key.of(Dependency.class));
             }
 
             @Test
@@ -424,6 +566,24 @@ public class ContainerUnitTest {
                 assertThat(sub.superSn).isEqualTo(0);
             }
 
+            @Test
+            void should_scan_inject_methods_following_override_rules() throws Exception {
+                // when + then
+                assertThat(InjectionPoints.of(SubWithInjectMethod.class).getMethods()).containsExactly(
+                        SuperWithInjectMethod.class.getMethod("install"), SubWithInjectMethod.class.getMethod("installAnother"));
+                assertThat(InjectionPoints.of(SubOverridesSuperWithInjectMethod.class).getMethods()).containsExactly(
+                        SubOverridesSuperWithInjectMethod.class.getMethod("install"));
+                assertThat(InjectionPoints.of(SubOverridesSuperWithNoInjectMethod.class).getMethods()).isEmpty();
+                assertThat(InjectionPoints.of(SubOverridesNoInjectMethodSuperWithInjectMethod.class).getMethods()).containsExactly(
+                        SubOverridesNoInjectMethodSuperWithInjectMethod.class.getMethod("install"));
+            }
+
+            @Test
+            void should_scan_each_class_only_once() {
+                // when + then
+                assertThat(InjectionPoints.of(SubWithInjectMethod.class)).isSameAs(InjectionPoints.of(SubWithInjectMethod.class));
+            }
+
             @Test
             void should_call_inject_method_of_sub_if_super_not_annotated_while_sub_was() {
                 // given
@@ -437,16 +597,2160 @@ public class ContainerUnitTest {
             }
 
         }
+
+        @Nested
+        class ProviderInjection {
+            static class CountedDependency implements Dependency {
+                static final AtomicInteger constructed = new AtomicInteger();
+
+                public CountedDependency() {
+                    constructed.incrementAndGet();
+                }
+            }
+
+            static class ComponentWithProviderField {
+                @Inject
+                Provider<Dependency> dependency;
+            }
+
+            static class ComponentWithLazyConstructor {
+                final Lazy<Dependency> dependency;
+
+                @Inject
+                public ComponentWithLazyConstructor(Lazy<Dependency> dependency) {
+                    this.dependency = dependency;
+                }
+            }
+
+            static class ComponentWithProviderOfDependedOnIt implements Component {
+                @Inject
+                Provider<Dependency> dependency;
+            }
+
+            @Test
+            void should_defer_construction_until_provider_called() {
+                // given
+                config.bind(Dependency.class, CountedDependency.class);
+                config.bind(ComponentWithProviderField.class, ComponentWithProviderField.class);
+                final Context context = config.getContext();
+                final int before = CountedDependency.constructed.get();
+
+                // when
+                final ComponentWithProviderField component = context.get(ComponentWithProviderField.class).get();
+
+                // then
+                assertThat(CountedDependency.constructed.get()).isEqualTo(before);
+                assertThat(component.dependency.get()).isInstanceOf(CountedDependency.class);
+                assertThat(component.dependency.get()).isNotSameAs(component.dependency.get());
+            }
+
+            @Test
+            void should_construct_lazy_dependency_once_on_first_use() {
+                // given
+                config.bind(Dependency.class, CountedDependency.class);
+                config.bind(ComponentWithLazyConstructor.class, ComponentWithLazyConstructor.class);
+                final Context context = config.getContext();
+                final int before = CountedDependency.constructed.get();
+
+                // when
+                final ComponentWithLazyConstructor component = context.get(ComponentWithLazyConstructor.class).get();
+
+                // then
+                assertThat(CountedDependency.constructed.get()).isEqualTo(before);
+                assertThat(component.dependency.get()).isSameAs(component.dependency.get());
+                assertThat(CountedDependency.constructed.get()).isEqualTo(before + 1);
+            }
+
+            @Test
+            void should_include_provider_dependency_as_declared() throws Exception {
+                // given
+                final ConstructionInjectionProvider<ComponentWithProviderField> provider = new ConstructionInjectionProvider<>(ComponentWithProviderField.class);
+
+                // when + then
+                assertThat(provider.getDependencies())
+                        .containsExactly(Key.of(ComponentWithProviderField.class.getDeclaredField("dependency").getGenericType()));
+            }
+
+            @Test
+            void should_throw_exception_if_provided_dependency_not_found() {
+                // given
+                config.bind(ComponentWithProviderField.class, ComponentWithProviderField.class);
+
+                // when
+                final Throwable exception = catchThrowable(() -> config.getContext());
+
+                // then
+                assertThat(exception).isInstanceOf(DependencyNotFoundException.class);
+                assertThat(((DependencyNotFoundException) exception).getDependencyType()).isEqualTo(Dependency.class);
+            }
+
+            @Test
+            void should_allow_cyclic_dependencies_broken_by_provider() {
+                // given
+                config.bind(Component.class, ComponentWithProviderOfDependedOnIt.class);
+                config.bind(Dependency.class, DependencyDependedOnComponent.class);
+
+                // when
+                final Component component = config.getContext().get(Component.class).get();
+
+                // then
+                final DependencyDependedOnComponent dependency = (DependencyDependedOnComponent) ((ComponentWithProviderOfDependedOnIt) component).dependency.get();
+                assertThat(dependency.component).isInstanceOf(ComponentWithProviderOfDependedOnIt.class);
+            }
+        }
+
+        @Nested
+        class LazyBinding {
+            @BeforeEach
+            void setUp() {
+                config = new ContextConfig(ContextConfig.Mode.LAZY);
+            }
+
+            @Test
+            void should_not_scan_nor_validate_until_first_use() {
+                // given
+                config.bind(Component.class, ComponentWithMultiInjectConstructors.class);
+                config.bind(Dependency.class, DependencyWithInjectorConstructor.class);
+
+                // when
+                final Context context = config.getContext();
+
+                // then
+                assertThatThrownBy(() -> context.get(Component.class))
+                        .isInstanceOf(IllegalComponentException.class)
+                        .hasMessageContaining(MULTI_INJECT_CONSTRUCTORS.getValue());
+                final Throwable exception = catchThrowable(() -> context.get(Dependency.class));
+                assertThat(exception).isInstanceOf(DependencyNotFoundException.class);
+                assertThat(((DependencyNotFoundException) exception).getDependencyType()).isEqualTo(String.class);
+            }
+
+            @Test
+            void should_validate_dependencies_on_first_use() {
+                // given
+                config.bind(Component.class, ComponentWithInjectConstructor.class);
+                config.bind(Dependency.class, DependencyDependedOnComponent.class);
+                config.bind(String.class, "unrelated");
+                final Context context = config.getContext();
+
+                // when + then
+                assertThat(context.get(String.class).get()).isEqualTo("unrelated");
+                assertThatThrownBy(() -> context.get(Component.class))
+                        .isInstanceOf(CyclicDependenciesFoundException.class);
+            }
+
+            @Test
+            void should_resolve_lazily_bound_components_with_their_scopes() {
+                // given
+                config.bind(Dependency.class, DependencyWithInjectorConstructor.class);
+                config.bind(String.class, "indirect dependency");
+                config.bind(Component.class, ComponentWithInjectConstructor.class);
+                config.bind(LifecycleManagement.Scoping.SingletonComponent.class, LifecycleManagement.Scoping.SingletonComponent.class);
+                final Context context = config.getContext();
+
+                // when
+                final Component component = context.get(Component.class).get();
+
+                // then
+                final Dependency dependency = ((ComponentWithInjectConstructor) component).getDependency();
+                assertThat(((DependencyWithInjectorConstructor) dependency).getDependency()).isEqualTo("indirect dependency");
+                assertThat(context.get(LifecycleManagement.Scoping.SingletonComponent.class).get())
+                        .isSameAs(context.get(LifecycleManagement.Scoping.SingletonComponent.class).get());
+            }
+        }
+
+        @Nested
+        class Instantiation {
+            static class ComponentFailingToConstruct {
+                @Inject
+                public ComponentFailingToConstruct() {
+                    throw new IllegalStateException("failed to construct");
+                }
+            }
+
+            @Test
+            void should_not_wrap_exception_thrown_by_inject_constructor() {
+                // given
+                config.bind(ComponentFailingToConstruct.class, ComponentFailingToConstruct.class);
+
+                // when + then
+                assertThatThrownBy(() -> config.getContext().get(ComponentFailingToConstruct.class))
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("failed to construct");
+            }
+
+            @Test
+            void should_find_factory_generated_for_component_with_inject_points() {
+                // when
+                final Optional<ComponentProvider<SubWithInjectMethod>> factory = GeneratedFactories.find(SubWithInjectMethod.class);
+
+                // then
+                assertThat(factory).isPresent();
+                final SubWithInjectMethod sub = factory.get().create(new Object[0]);
+                assertThat(sub.superSn).isEqualTo(1);
+                assertThat(sub.subSn).isEqualTo(2);
+            }
+
+            @Test
+            void should_inject_field_hidden_by_sub_the_same_way_via_generated_factory_as_via_reflection() {
+                // given
+                final Object[] dependencies = {"sub", "super"};
+
+                // when
+                final SubHidingInjectField generated = GeneratedFactories.find(SubHidingInjectField.class).get().create(dependencies);
+                final SubHidingInjectField reflective = new ConstructionInjectionProvider<>(SubHidingInjectField.class).create(dependencies);
+
+                // then
+                assertThat(generated.name).isEqualTo(reflective.name).isEqualTo("sub");
+                assertThat(((SuperWithInjectField) generated).name).isEqualTo(((SuperWithInjectField) reflective).name).isEqualTo("super");
+            }
+
+            @Test
+            void should_not_find_factory_if_none_generated() {
+                // when + then
+                assertThat(GeneratedFactories.find(ComponentFailingToConstruct.class)).isEmpty();
+            }
+
+            static class ComponentFailingWithCheckedException {
+                @Inject
+                public ComponentFailingWithCheckedException() throws Exception {
+                    throw new Exception("failed to construct");
+                }
+            }
+
+            private <T> List<Instantiator<T>> bothInstantiatorsOf(Class<T> impl) throws Exception {
+                final InjectionPoints<T> points = InjectionPoints.of(impl);
+                return List.of(
+                        new ReflectiveInstantiator<>(points.getConstructor(), points.getFields(), points.getMethods()),
+                        new MethodHandleInstantiator<>(points.getConstructor(), points.getFields(), points.getMethods()));
+            }
+
+            @Test
+            void should_inject_the_same_way_via_reflection_as_via_method_handles() throws Exception {
+                // given
+                final Dependency dependency = new Dependency() {
+                };
+                final Object[] dependencies = {dependency, "field", "installed"};
+
+                // when
+                final List<ContainerImages.ComponentWithEveryInjectionPoint> components = new ArrayList<>();
+                for (Instantiator<ContainerImages.ComponentWithEveryInjectionPoint> instantiator
+                        : bothInstantiatorsOf(ContainerImages.ComponentWithEveryInjectionPoint.class)) {
+                    components.add(instantiator.create(dependencies));
+                }
+
+                // then
+                for (ContainerImages.ComponentWithEveryInjectionPoint component : components) {
+                    assertThat(component.constructed).isSameAs(dependency);
+                    assertThat(component.field).isEqualTo("field");
+                    assertThat(component.installed).isEqualTo("installed");
+                }
+            }
+
+            @Test
+            void should_throw_the_same_via_reflection_as_via_method_handles() throws Exception {
+                for (Class<?> failing : List.of(ComponentFailingToConstruct.class, ComponentFailingWithCheckedException.class)) {
+                    // when
+                    final List<Throwable> thrown = new ArrayList<>();
+                    for (Instantiator<?> instantiator : bothInstantiatorsOf(failing)) {
+                        thrown.add(catchThrowable(() -> instantiator.create(new Object[0])));
+                    }
+
+                    // then
+                    assertThat(thrown.get(0).getClass()).isEqualTo(thrown.get(1).getClass());
+                    assertThat(thrown.get(0).getMessage()).isEqualTo(thrown.get(1).getMessage());
+                }
+                assertThat(catchThrowable(() -> bothInstantiatorsOf(ComponentFailingWithCheckedException.class).get(0).create(new Object[0])))
+                        .isInstanceOf(RuntimeException.class)
+                        .hasCauseInstanceOf(Exception.class);
+            }
+        }
+
+        @Nested
+        class DeepDependencies {
+            private static final int DEPTH = 50_000;
+
+            /**
+             * Level {@code i} depends on level {@code i + 1} and is one more than it, so level 0 is {@code depth - 1}.
+             */
+            private final AtomicInteger created = new AtomicInteger();
+
+            private Map<Key<?>, ComponentProvider<?>> chainOf(int depth) {
+                final Map<Key<?>, ComponentProvider<?>> providers = new HashMap<>();
+                for (int i = 0; i < depth; i++) {
+                    final List<Key<?>> next = i + 1 < depth ? List.of(levelOf(i + 1)) : List.of();
+                    providers.put(levelOf(i), new ComponentProvider<Integer>() {
+                        @Override
+                        public Integer get(Context context) {
+                            created.incrementAndGet();
+                            return next.isEmpty() ? 0 : (Integer) context.require(next.get(0)) + 1;
+                        }
+
+                        @Override
+                        public List<Key<?>> getDependencies() {
+                            return next;
+                        }
+                    });
+                }
+                return providers;
+            }
+
+            private static Key<Integer> levelOf(int i) {
+                return Key.named(Integer.class, String.valueOf(i));
+            }
+
+            @Test
+            void should_check_chain_deeper_than_thread_stack() {
+                // when
+                final List<Key<?>> order = DependencyChecker.check(chainOf(DEPTH));
+
+                // then
+                assertThat(order).hasSize(DEPTH);
+                assertThat(order.get(0)).isEqualTo(levelOf(DEPTH - 1));
+                assertThat(order.get(DEPTH - 1)).isEqualTo(levelOf(0));
+            }
+
+            @Test
+            void should_report_cycle_closing_deep_chain() {
+                // given
+                final Map<Key<?>, ComponentProvider<?>> providers = chainOf(DEPTH);
+                providers.put(levelOf(DEPTH - 1), new ComponentProvider<Integer>() {
+                    @Override
+                    public Integer get(Context context) {
+                        return 0;
+                    }
+
+                    @Override
+                    public List<Key<?>> getDependencies() {
+                        return List.of(levelOf(0));
+                    }
+                });
+
+                // when
+                final Throwable throwable = catchThrowable(() -> DependencyChecker.check(providers));
+
+                // then
+                assertThat(throwable).isInstanceOf(CyclicDependenciesFoundException.class);
+            }
+
+            @Test
+            void should_construct_chain_deeper_than_thread_stack() {
+                // given
+                final Map<Key<?>, ComponentProvider<?>> providers = chainOf(DEPTH);
+                final Context context = InjectionPlan.compile(providers, Map.of(), Map.of(), null, null);
+
+                // when + then
+                assertThat(context.require(levelOf(0))).isEqualTo(DEPTH - 1);
+            }
+
+            @Test
+            void should_construct_chain_deeper_than_thread_stack_async() {
+                // given
+                final Context context = InjectionPlan.compile(chainOf(DEPTH), Map.of(), Map.of(), null, null);
+                final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+                // when
+                final CompletableFuture<Integer> head = context.getAsync(levelOf(0), executor);
+
+                // then
+                assertThat(head.join()).isEqualTo(DEPTH - 1);
+                executor.shutdown();
+            }
+
+            @Test
+            void should_construct_deep_chain_of_singletons_and_prototypes_once_each() {
+                // given
+                final Map<Key<?>, ComponentProvider<?>> providers = chainOf(DEPTH);
+                final Map<Key<?>, ScopeProvider> scopes = new HashMap<>();
+                for (int i = 0; i < DEPTH; i += 2) {
+                    scopes.put(levelOf(i), SingletonProvider::new);
+                }
+                final Context context = InjectionPlan.compile(providers, scopes, Map.of(), null, null);
+
+                // when
+                final Integer first = context.require(levelOf(0));
+                final Integer second = context.require(levelOf(0));
+
+                // then
+                assertThat(first).isEqualTo(DEPTH - 1).isSameAs(second);
+                assertThat(created.get()).isEqualTo(DEPTH);
+            }
+        }
     }
 
     @Nested
     public class DependenciesSelection {
+        static class ComponentWithNamedDependencies {
+            Dependency primary;
 
-    }
+            @Inject
+            @Named("secondary")
+            Dependency secondary;
 
-    @Nested
-    public class LifecycleManagement {
+            @Inject
+            public ComponentWithNamedDependencies(@Named("primary") Dependency primary) {
+                this.primary = primary;
+            }
+        }
 
-    }
+        static class ComponentWithParameterizedDependencies {
+            @Inject
+            List<String> names;
 
+            @Inject
+            List<Integer> numbers;
+        }
+
+        @Qualifier
+        @Retention(RetentionPolicy.RUNTIME)
+        @interface Primary {
+        }
+
+        static class ComponentWithMultiQualifiers {
+            @Inject
+            public ComponentWithMultiQualifiers(@Primary @Named("primary") Dependency dependency) {
+            }
+        }
+
+        @Test
+        void should_select_dependencies_by_qualifier() {
+            // given
+            final Dependency primary = new Dependency() {
+            };
+            final Dependency secondary = new Dependency() {
+            };
+            config.bind(Key.named(Dependency.class, "primary"), primary);
+            config.bind(Key.named(Dependency.class, "secondary"), secondary);
+            config.bind(ComponentWithNamedDependencies.class, ComponentWithNamedDependencies.class);
+
+            // when
+            final ComponentWithNamedDependencies component = config.getContext().get(ComponentWithNamedDependencies.class).get();
+
+            // then
+            assertThat(component.primary).isSameAs(primary);
+            assertThat(component.secondary).isSameAs(secondary);
+        }
+
+        @Test
+        void should_not_satisfy_qualified_dependency_with_unqualified_binding() {
+            // given
+            config.bind(Dependency.class, new Dependency() {
+            });
+            config.bind(ComponentWithNamedDependencies.class, ComponentWithNamedDependencies.class);
+
+            // when
+            final Throwable exception = catchThrowable(() -> config.getContext());
+
+            // then
+            assertThat(exception).isInstanceOf(DependencyNotFoundException.class);
+            assertThat(((DependencyNotFoundException) exception).getDependencyType()).isEqualTo(Dependency.class);
+        }
+
+        @Test
+        void should_select_dependencies_by_type_arguments() {
+            // given
+            config.bind(new Key<List<String>>() {
+            }, List.of("one"));
+            config.bind(new Key<List<Integer>>() {
+            }, List.of(1));
+            config.bind(ComponentWithParameterizedDependencies.class, ComponentWithParameterizedDependencies.class);
+
+            // when
+            final ComponentWithParameterizedDependencies component = config.getContext().get(ComponentWithParameterizedDependencies.class).get();
+
+            // then
+            assertThat(component.names).containsExactly("one");
+            assertThat(component.numbers).containsExactly(1);
+        }
+
+        @Test
+        void should_intern_class_keys_and_equal_other_keys_to_those_of_injection_points() throws Exception {
+            // given
+            final Named named = ComponentWithNamedDependencies.class.getDeclaredField("secondary").getAnnotation(Named.class);
+
+            // when + then
+            assertThat(Key.of(Dependency.class, named)).isEqualTo(Key.named(Dependency.class, "secondary"));
+            assertThat(Key.of(Dependency.class)).isSameAs(Key.of(Dependency.class));
+            assertThat(Key.of(ComponentWithParameterizedDependencies.class.getDeclaredField("names").getGenericType()))
+                    .isEqualTo(new Key<List<String>>() {
+                    })
+                    .isNotEqualTo(new Key<List<Integer>>() {
+                    });
+        }
+
+        @Test
+        void should_throw_exception_when_injection_point_has_multi_qualifiers() {
+            assertThatThrownBy(() -> config.bind(ComponentWithMultiQualifiers.class, ComponentWithMultiQualifiers.class))
+                    .isInstanceOf(IllegalComponentException.class)
+                    .hasMessageContaining(MULTI_QUALIFIERS.getValue());
+        }
+
+        @Nested
+        class Multibindings {
+            interface Plugin {
+            }
+
+            static class OnePlugin implements Plugin {
+            }
+
+            @Singleton
+            static class SingletonPlugin implements Plugin {
+            }
+
+            static class ComponentWithPlugins {
+                @Inject
+                Set<Plugin> plugins;
+
+                @Inject
+                Map<String, Plugin> pluginsByName;
+            }
+
+            @Test
+            void should_collect_every_contribution_into_set() {
+                // given
+                final Plugin instance = new Plugin() {
+                };
+                config.bindIntoSet(Key.setOf(Plugin.class), instance);
+                config.bindIntoSet(Key.setOf(Plugin.class), OnePlugin.class);
+                config.bindIntoSet(Key.setOf(Plugin.class), SingletonPlugin.class);
+                config.bindIntoMap(Key.mapOf(String.class, Plugin.class), "instance", instance);
+                config.bindIntoMap(Key.mapOf(String.class, Plugin.class), "one", OnePlugin.class);
+                config.bind(ComponentWithPlugins.class, ComponentWithPlugins.class);
+
+                // when
+                final ComponentWithPlugins component = config.getContext().require(ComponentWithPlugins.class);
+
+                // then
+                assertThat(component.plugins).hasSize(3);
+                assertThat(component.plugins.stream().map(Object::getClass).toList())
+                        .containsExactly(instance.getClass(), OnePlugin.class, SingletonPlugin.class);
+                assertThat(component.pluginsByName.keySet()).containsExactly("instance", "one");
+                assertThat(component.pluginsByName.get("instance")).isSameAs(instance);
+                assertThat(component.pluginsByName.get("one")).isInstanceOf(OnePlugin.class);
+            }
+
+            @Test
+            void should_scope_elements_and_collection_apart() {
+                // given
+                config.bindIntoSet(Key.setOf(Plugin.class), OnePlugin.class);
+                config.bindIntoSet(Key.setOf(Plugin.class), SingletonPlugin.class);
+                final Context unscoped = config.getContext();
+                config.inScope(Key.setOf(Plugin.class), Singleton.class);
+                final Context scoped = config.getContext();
+
+                // when
+                final Set<Plugin> one = unscoped.require(Key.setOf(Plugin.class));
+                final Set<Plugin> another = unscoped.require(Key.setOf(Plugin.class));
+
+                // then
+                assertThat(one).isNotSameAs(another);
+                assertThat(one.stream().filter(SingletonPlugin.class::isInstance).findFirst().get())
+                        .isSameAs(another.stream().filter(SingletonPlugin.class::isInstance).findFirst().get());
+                assertThat(scoped.require(Key.setOf(Plugin.class))).isSameAs(scoped.require(Key.setOf(Plugin.class)));
+            }
+
+            @Test
+            void should_not_see_contributions_made_after_context_got() {
+                // given
+                config.bindIntoSet(Key.setOf(Plugin.class), OnePlugin.class);
+                final Context context = config.getContext();
+
+                // when
+                config.bindIntoSet(Key.setOf(Plugin.class), SingletonPlugin.class);
+
+                // then
+                assertThat(context.require(Key.setOf(Plugin.class))).hasSize(1);
+                assertThat(config.getContext().require(Key.setOf(Plugin.class))).hasSize(2);
+            }
+
+            @Test
+            void should_number_contributions_per_multibinding() {
+                // given
+                final Key<Set<Plugin>> named = (Key<Set<Plugin>>) Key.of(ParameterizedTypes.of(Set.class, Plugin.class), new NamedLiteral("named"));
+                final ContextConfig another = new ContextConfig();
+                config.bindIntoSet(Key.setOf(Plugin.class), OnePlugin.class);
+                config.bindIntoSet(named, SingletonPlugin.class);
+                another.bindIntoSet(Key.setOf(Plugin.class), SingletonPlugin.class);
+
+                // when
+                final Context context = config.getContext();
+
+                // then
+                assertThat(context.require(Key.setOf(Plugin.class))).hasSize(1).allMatch(OnePlugin.class::isInstance);
+                assertThat(context.require(named)).hasSize(1).allMatch(SingletonPlugin.class::isInstance);
+                assertThat(another.getContext().require(Key.of(Plugin.class, new ContributionLiteral(Key.setOf(Plugin.class).toString(), 0))))
+                        .isInstanceOf(SingletonPlugin.class);
+            }
+
+            @Test
+            void should_throw_exception_when_contribute_to_same_map_key_twice() {
+                // given
+                config.bindIntoMap(Key.mapOf(String.class, Plugin.class), "one", OnePlugin.class);
+
+                // when + then
+                assertThatThrownBy(() -> config.bindIntoMap(Key.mapOf(String.class, Plugin.class), "one", SingletonPlugin.class))
+                        .isInstanceOf(IllegalComponentException.class)
+                        .hasMessageContaining(DUPLICATE_MAP_KEY.getValue());
+            }
+        }
+    }
+
+    @Nested
+    public class LifecycleManagement {
+        @Nested
+        class Scoping {
+            @Singleton
+            static class SingletonComponent {
+                static final AtomicInteger constructed = new AtomicInteger();
+
+                public SingletonComponent() {
+                    constructed.incrementAndGet();
+                }
+            }
+
+            static class ComponentDependedOnSingleton {
+                SingletonComponent singleton;
+
+                @Inject
+                public ComponentDependedOnSingleton(SingletonComponent singleton) {
+                    this.singleton = singleton;
+                }
+            }
+
+            @Scope
+            @Retention(RetentionPolicy.RUNTIME)
+            @interface PerThread {
+            }
+
+            @PerThread
+            static class PerThreadComponent {
+            }
+
+            @Singleton
+            @PerThread
+            static class ComponentWithMultiScopes {
+            }
+
+            @Test
+            void should_construct_new_instance_every_time_if_not_scoped() {
+                // given
+                config.bind(ComponentWithDefaultConstructor.class, ComponentWithDefaultConstructor.class);
+                final Context context = config.getContext();
+
+                // when + then
+                assertThat(context.get(ComponentWithDefaultConstructor.class).get())
+                        .isNotSameAs(context.get(ComponentWithDefaultConstructor.class).get());
+            }
+
+            @Test
+            void should_share_singleton_instance_across_gets_and_dependents() {
+                // given
+                config.bind(SingletonComponent.class, SingletonComponent.class);
+                config.bind(ComponentDependedOnSingleton.class, ComponentDependedOnSingleton.class);
+                final Context context = config.getContext();
+
+                // when
+                final SingletonComponent singleton = context.get(SingletonComponent.class).get();
+                final ComponentDependedOnSingleton dependent = context.get(ComponentDependedOnSingleton.class).get();
+
+                // then
+                assertThat(context.get(SingletonComponent.class).get()).isSameAs(singleton);
+                assertThat(dependent.singleton).isSameAs(singleton);
+            }
+
+            @Test
+            void should_construct_singleton_exactly_once_under_concurrent_gets() throws Exception {
+                // given
+                config.bind(SingletonComponent.class, SingletonComponent.class);
+                final Context context = config.getContext();
+                final int before = SingletonComponent.constructed.get();
+                final ExecutorService executor = Executors.newFixedThreadPool(16);
+                final CountDownLatch start = new CountDownLatch(1);
+
+                // when
+                final List<Future<SingletonComponent>> futures = new ArrayList<>();
+                for (int i = 0; i < 64; i++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return context.get(SingletonComponent.class).get();
+                    }));
+                }
+                start.countDown();
+                final Set<SingletonComponent> instances = new HashSet<>();
+                for (Future<SingletonComponent> future : futures) {
+                    instances.add(future.get());
+                }
+                executor.shutdown();
+
+                // then
+                assertThat(instances).hasSize(1);
+                assertThat(SingletonComponent.constructed.get() - before).isEqualTo(1);
+            }
+
+            @Test
+            void should_scope_via_registered_scope_provider() throws Exception {
+                // given
+                config.scope(PerThread.class, new ScopeProvider() {
+                    @Override
+                    public <T> Provider<T> scope(Provider<T> unscoped) {
+                        final ThreadLocal<T> instances = ThreadLocal.withInitial(unscoped::get);
+                        return instances::get;
+                    }
+                });
+                config.bind(PerThreadComponent.class, PerThreadComponent.class);
+                final Context context = config.getContext();
+
+                // when
+                final PerThreadComponent mine = context.get(PerThreadComponent.class).get();
+                final ExecutorService executor = Executors.newSingleThreadExecutor();
+                final PerThreadComponent others = executor.submit(() -> context.get(PerThreadComponent.class).get()).get();
+                executor.shutdown();
+
+                // then
+                assertThat(context.get(PerThreadComponent.class).get()).isSameAs(mine);
+                assertThat(others).isNotSameAs(mine);
+            }
+
+            static final CountDownLatch bothStarted = new CountDownLatch(2);
+
+            @Singleton
+            static class SlowSingleton {
+                boolean startedTogether;
+
+                @Inject
+                void install() throws InterruptedException {
+                    bothStarted.countDown();
+                    startedTogether = bothStarted.await(5, TimeUnit.SECONDS);
+                }
+            }
+
+            @Singleton
+            static class AnotherSlowSingleton extends SlowSingleton {
+            }
+
+            @Singleton
+            static class SingletonDependedOnSlowOnes {
+                SlowSingleton slow;
+                AnotherSlowSingleton anotherSlow;
+
+                @Inject
+                public SingletonDependedOnSlowOnes(SlowSingleton slow, AnotherSlowSingleton anotherSlow) {
+                    this.slow = slow;
+                    this.anotherSlow = anotherSlow;
+                }
+            }
+
+            @Test
+            void should_create_independent_singletons_in_parallel_when_warming_up() {
+                // given
+                config.bind(SlowSingleton.class, SlowSingleton.class);
+                config.bind(AnotherSlowSingleton.class, AnotherSlowSingleton.class);
+                config.bind(SingletonDependedOnSlowOnes.class, SingletonDependedOnSlowOnes.class);
+                final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+                // when
+                final Context context = config.getContext(executor);
+                executor.shutdown();
+
+                // then
+                final SingletonDependedOnSlowOnes dependent = context.get(SingletonDependedOnSlowOnes.class).get();
+                assertThat(dependent.slow.startedTogether).isTrue();
+                assertThat(dependent.anotherSlow.startedTogether).isTrue();
+                assertThat(dependent.slow).isSameAs(context.get(SlowSingleton.class).get());
+            }
+
+            @Test
+            void should_throw_exception_if_scope_not_registered() {
+                // when + then
+                assertThatThrownBy(() -> config.bind(PerThreadComponent.class, PerThreadComponent.class))
+                        .isInstanceOf(IllegalComponentException.class)
+                        .hasMessageContaining(UNKNOWN_SCOPE.getValue());
+            }
+
+            @Test
+            void should_throw_exception_if_multi_scopes_annotated() {
+                // when + then
+                assertThatThrownBy(() -> config.bind(ComponentWithMultiScopes.class, ComponentWithMultiScopes.class))
+                        .isInstanceOf(IllegalComponentException.class)
+                        .hasMessageContaining(MULTI_SCOPES.getValue());
+            }
+
+            @Test
+            void should_leave_config_as_it_was_given_bind_rejected_for_illegal_scope() {
+                // given
+                catchThrowable(() -> config.bind(ComponentWithMultiScopes.class, ComponentWithMultiScopes.class));
+                catchThrowable(() -> config.bind(PerThreadComponent.class, PerThreadComponent.class));
+
+                // when
+                final Context context = config.getContext();
+
+                // then
+                assertThat(context.get(ComponentWithMultiScopes.class)).isEmpty();
+                assertThat(context.get(PerThreadComponent.class)).isEmpty();
+            }
+
+            @Test
+            void should_throw_exception_on_bind_if_illegal_scope_given_lazy_mode() {
+                // given
+                final ContextConfig lazy = new ContextConfig(ContextConfig.Mode.LAZY);
+
+                // when + then
+                assertThatThrownBy(() -> lazy.bind(ComponentWithMultiScopes.class, ComponentWithMultiScopes.class))
+                        .isInstanceOf(IllegalComponentException.class)
+                        .hasMessageContaining(MULTI_SCOPES.getValue());
+                assertThatThrownBy(() -> lazy.bind(PerThreadComponent.class, PerThreadComponent.class))
+                        .isInstanceOf(IllegalComponentException.class)
+                        .hasMessageContaining(UNKNOWN_SCOPE.getValue());
+                assertThat(lazy.getContext().get(ComponentWithMultiScopes.class)).isEmpty();
+            }
+        }
+
+        @Nested
+        class Callbacks {
+            static final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+            static class SuperWithPostConstruct {
+                @Inject
+                Dependency dependency;
+
+                @PostConstruct
+                void setUpSuper() {
+                    events.add("super sees " + (dependency != null));
+                }
+            }
+
+            static class SubWithPostConstruct extends SuperWithPostConstruct {
+                @PostConstruct
+                private void setUpSub() {
+                    events.add("sub");
+                }
+            }
+
+            static class SubWithTwoPostConstructs extends SuperWithPostConstruct {
+                @PostConstruct
+                void setUpOne() {
+                    events.add("one");
+                }
+
+                @PostConstruct
+                void setUpAnother() {
+                    events.add("another");
+                }
+            }
+
+            @Singleton
+            static class Pool {
+                @PreDestroy
+                void shutDown() {
+                    events.add("pool");
+                }
+            }
+
+            @Singleton
+            static class Repository {
+                @Inject
+                Pool pool;
+
+                @PreDestroy
+                void shutDown() {
+                    events.add("repository");
+                }
+            }
+
+            static class Service {
+                @Inject
+                Repository repository;
+
+                @PreDestroy
+                void shutDown() {
+                    events.add("service");
+                }
+            }
+
+            @Singleton
+            static class Controller {
+                @Inject
+                Service service;
+
+                @PreDestroy
+                void shutDown() {
+                    events.add("controller");
+                }
+            }
+
+            static final CountDownLatch bothTearingDown = new CountDownLatch(2);
+
+            @Singleton
+            static class SlowToClose {
+                boolean closedTogether;
+
+                @PreDestroy
+                void shutDown() throws InterruptedException {
+                    bothTearingDown.countDown();
+                    closedTogether = bothTearingDown.await(5, TimeUnit.SECONDS);
+                }
+            }
+
+            @Singleton
+            static class AnotherSlowToClose extends SlowToClose {
+            }
+
+            @Singleton
+            static class FailingToClose {
+                @PreDestroy
+                void shutDown() {
+                    throw new IllegalStateException("failed to close");
+                }
+            }
+
+            static class ComponentWithIllegalPostConstruct {
+                @PostConstruct
+                void setUp(Dependency dependency) {
+                }
+            }
+
+            @BeforeEach
+            void setUp() {
+                events.clear();
+            }
+
+            @Test
+            void should_invoke_post_construct_after_injection_super_first() {
+                // given
+                config.bind(Dependency.class, new Dependency() {
+                });
+                config.bind(SubWithPostConstruct.class, SubWithPostConstruct.class);
+
+                // when
+                config.getContext().require(SubWithPostConstruct.class);
+
+                // then
+                assertThat(events).containsExactly("super sees true", "sub");
+            }
+
+            @Test
+            void should_invoke_post_constructs_of_one_class_in_declared_order_after_those_of_super() {
+                // given
+                config.bind(Dependency.class, new Dependency() {
+                });
+                config.bind(SubWithTwoPostConstructs.class, SubWithTwoPostConstructs.class);
+
+                // when
+                config.getContext().require(SubWithTwoPostConstructs.class);
+
+                // then
+                final List<String> expected = new ArrayList<>(List.of("super sees true"));
+                Arrays.stream(SubWithTwoPostConstructs.class.getDeclaredMethods())
+                        .filter(it -> it.isAnnotationPresent(PostConstruct.class))
+                        .forEach(it -> expected.add(it.getName().equals("setUpOne") ? "one" : "another"));
+                assertThat(events).containsExactly(expected.toArray());
+            }
+
+            @Test
+            void should_tear_down_singletons_after_their_dependents_on_close() {
+                // given
+                config.bind(Pool.class, Pool.class);
+                config.bind(Repository.class, Repository.class);
+                config.bind(Service.class, Service.class);
+                config.bind(Controller.class, Controller.class);
+                final Context context = config.getContext();
+                context.require(Controller.class);
+
+                // when
+                context.close();
+
+                // then
+                assertThat(events).containsExactly("controller", "repository", "pool");
+            }
+
+            @Test
+            void should_tear_down_independent_singletons_in_parallel() {
+                // given
+                config.bind(SlowToClose.class, SlowToClose.class);
+                config.bind(AnotherSlowToClose.class, AnotherSlowToClose.class);
+                final Context context = config.getContext();
+                final SlowToClose slow = context.require(SlowToClose.class);
+                final AnotherSlowToClose anotherSlow = context.require(AnotherSlowToClose.class);
+                final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+                // when
+                context.close(executor);
+                executor.shutdown();
+
+                // then
+                assertThat(slow.closedTogether).isTrue();
+                assertThat(anotherSlow.closedTogether).isTrue();
+            }
+
+            @Test
+            void should_tear_down_only_singletons_created_and_only_once() {
+                // given
+                config.bind(Pool.class, Pool.class);
+                config.bind(Repository.class, Repository.class);
+                config.bind(Service.class, Service.class);
+                final Context context = config.getContext();
+                context.require(Service.class);
+                final Context unused = config.getContext();
+
+                // when
+                context.close();
+                context.close();
+                unused.close();
+
+                // then
+                assertThat(events).containsExactly("repository", "pool");
+            }
+
+            @Test
+            void should_tear_down_the_others_and_throw_given_pre_destroy_failed() {
+                // given
+                config.bind(Pool.class, Pool.class);
+                config.bind(FailingToClose.class, FailingToClose.class);
+                final Context context = config.getContext();
+                context.require(Pool.class);
+                context.require(FailingToClose.class);
+
+                // when
+                final Throwable throwable = catchThrowable(context::close);
+
+                // then
+                assertThat(throwable).isInstanceOf(IllegalStateException.class).hasMessageContaining("failed to close");
+                assertThat(events).containsExactly("pool");
+            }
+
+            @Test
+            void should_throw_exception_if_lifecycle_method_takes_parameters() {
+                // when + then
+                assertThatThrownBy(() -> config.bind(ComponentWithIllegalPostConstruct.class, ComponentWithIllegalPostConstruct.class))
+                        .isInstanceOf(IllegalComponentException.class)
+                        .hasMessageContaining(ILLEGAL_LIFECYCLE_METHOD.getValue());
+            }
+
+            @Test
+            void should_leave_config_as_it_was_given_bind_rejected_for_illegal_lifecycle_method() {
+                // given
+                config.bind(Pool.class, Pool.class);
+                catchThrowable(() -> config.bind(ComponentWithIllegalPostConstruct.class, ComponentWithIllegalPostConstruct.class));
+
+                // when
+                final Context context = config.getContext();
+
+                // then
+                assertThat(context.get(Pool.class)).isPresent();
+                assertThat(context.get(ComponentWithIllegalPostConstruct.class)).isEmpty();
+            }
+        }
+
+        @Nested
+        class Pooling {
+            static final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+            @Pooled(size = 2)
+            static class Buffer {
+                final StringBuilder content = new StringBuilder();
+
+                @Pooled.Reset
+                void clear() {
+                    content.setLength(0);
+                    events.add("reset");
+                }
+
+                @PreDestroy
+                void release() {
+                    events.add("destroyed");
+                }
+            }
+
+            static class BufferUser {
+                @Inject
+                Buffer buffer;
+            }
+
+            @BeforeEach
+            void setUp() {
+                events.clear();
+            }
+
+            @Test
+            void should_hand_out_instance_leased_before_once_returned_and_reset() {
+                // given
+                config.bind(Buffer.class, Buffer.class);
+                final Context context = config.getContext();
+                final Buffer first;
+
+                // when
+                try (Lease<Buffer> lease = context.lease(Buffer.class)) {
+                    first = lease.get();
+                    first.content.append("dirty");
+                }
+
+                // then
+                try (Lease<Buffer> lease = context.lease(Buffer.class)) {
+                    assertThat(lease.get()).isSameAs(first);
+                    assertThat(lease.get().content.length()).isEqualTo(0);
+                }
+                assertThat(events).containsExactly("reset", "reset");
+            }
+
+            @Test
+            void should_hand_out_distinct_instances_to_leases_open_at_the_same_time() {
+                // given
+                config.bind(Buffer.class, Buffer.class);
+                final Context context = config.getContext();
+
+                // when
+                try (Lease<Buffer> one = context.lease(Buffer.class); Lease<Buffer> another = context.lease(Buffer.class)) {
+                    // then
+                    assertThat(one.get()).isNotSameAs(another.get());
+                }
+            }
+
+            @Test
+            void should_never_take_back_instance_got_or_injected() {
+                // given
+                config.bind(Buffer.class, Buffer.class);
+                config.bind(BufferUser.class, BufferUser.class);
+                final Context context = config.getContext();
+
+                // when
+                final Buffer got = context.require(Buffer.class);
+                final Buffer injected = context.require(BufferUser.class).buffer;
+
+                // then
+                try (Lease<Buffer> lease = context.lease(Buffer.class)) {
+                    assertThat(lease.get()).isNotSameAs(got).isNotSameAs(injected);
+                }
+            }
+
+            @Test
+            void should_destroy_instances_returned_beyond_pool_size_and_idle_ones_on_close() {
+                // given
+                config.bind(Buffer.class, Buffer.class);
+                final Context context = config.getContext();
+                final List<Lease<Buffer>> leases = List.of(context.lease(Buffer.class), context.lease(Buffer.class), context.lease(Buffer.class));
+
+                // when
+                leases.forEach(Lease::close);
+
+                // then
+                assertThat(events).containsExactly("reset", "reset", "reset", "destroyed");
+                context.close();
+                assertThat(events).containsExactly("reset", "reset", "reset", "destroyed", "destroyed", "destroyed");
+            }
+
+            @Test
+            void should_destroy_instance_returned_after_context_closed_instead_of_pooling_it() {
+                // given
+                config.bind(Buffer.class, Buffer.class);
+                final Context context = config.getContext();
+                final Lease<Buffer> lease = context.lease(Buffer.class);
+                final Buffer leased = lease.get();
+                context.close();
+
+                // when
+                lease.close();
+
+                // then
+                assertThat(events).containsExactly("reset", "destroyed");
+                try (Lease<Buffer> another = context.lease(Buffer.class)) {
+                    assertThat(another.get()).isNotSameAs(leased);
+                }
+            }
+
+            static class BufferNotAnnotated {
+                @Pooled.Reset
+                void clear() {
+                    events.add("reset");
+                }
+
+                @PreDestroy
+                void release() {
+                    events.add("destroyed");
+                }
+            }
+
+            @Test
+            void should_keep_lifecycle_of_component_pooled_by_in_scope() {
+                // given
+                config.bind(BufferNotAnnotated.class, BufferNotAnnotated.class);
+                config.inScope(Key.of(BufferNotAnnotated.class), Pooled.class);
+                final Context context = config.getContext();
+
+                // when
+                context.lease(BufferNotAnnotated.class).close();
+                context.close();
+
+                // then
+                assertThat(events).containsExactly("reset", "destroyed");
+            }
+
+            @Test
+            void should_return_instance_once_given_lease_closed_twice_and_refuse_it_afterwards() {
+                // given
+                config.bind(Buffer.class, Buffer.class);
+                final Context context = config.getContext();
+                final Lease<Buffer> lease = context.lease(Buffer.class);
+
+                // when
+                lease.close();
+                lease.close();
+
+                // then
+                assertThat(events).containsExactly("reset");
+                assertThatThrownBy(lease::get).isInstanceOf(IllegalStateException.class);
+            }
+
+            @Test
+            void should_lease_component_not_pooled_without_keeping_it() {
+                // given
+                config.bind(ComponentWithDefaultConstructor.class, ComponentWithDefaultConstructor.class);
+                final Context context = config.getContext();
+                final ComponentWithDefaultConstructor first;
+
+                // when
+                try (Lease<ComponentWithDefaultConstructor> lease = context.lease(ComponentWithDefaultConstructor.class)) {
+                    first = lease.get();
+                }
+
+                // then
+                try (Lease<ComponentWithDefaultConstructor> lease = context.lease(ComponentWithDefaultConstructor.class)) {
+                    assertThat(lease.get()).isNotSameAs(first);
+                }
+                assertThatThrownBy(() -> context.lease(Buffer.class)).isInstanceOf(DependencyNotFoundException.class);
+            }
+        }
+
+        @Nested
+        class RequestScoping {
+            static final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+            @RequestScoped
+            static class Session {
+                @PreDestroy
+                void end() {
+                    events.add("session");
+                }
+            }
+
+            @RequestScoped
+            static class Transaction {
+                @Inject
+                Session session;
+
+                @PreDestroy
+                void end() {
+                    events.add("transaction");
+                }
+            }
+
+            static class Handler {
+                @Inject
+                Session session;
+                @Inject
+                Transaction transaction;
+                @Inject
+                Provider<Session> sessions;
+            }
+
+            @Singleton
+            static class SingletonHandler {
+                @Inject
+                Session session;
+            }
+
+            @BeforeEach
+            void setUp() {
+                events.clear();
+                config.bind(Session.class, Session.class);
+                config.bind(Transaction.class, Transaction.class);
+                config.bind(Handler.class, Handler.class);
+            }
+
+            @Test
+            void should_share_instance_within_unit_of_work_but_not_across_units() {
+                // given
+                final Context context = config.getContext();
+
+                // when
+                try (UnitOfWork unit = context.openUnitOfWork(); UnitOfWork another = context.openUnitOfWork()) {
+                    final Handler handler = unit.require(Handler.class);
+
+                    // then
+                    assertThat(handler.session).isSameAs(unit.require(Session.class));
+                    assertThat(handler.transaction.session).isSameAs(handler.session);
+                    assertThat(handler.sessions.get()).isSameAs(handler.session);
+                    assertThat(unit.require(Handler.class)).isNotSameAs(handler);
+                    assertThat(another.require(Session.class)).isNotSameAs(handler.session);
+                }
+            }
+
+            @Test
+            void should_throw_exception_if_resolved_outside_unit_of_work() {
+                // given
+                final Context context = config.getContext();
+
+                // when + then
+                assertThatThrownBy(() -> context.get(Handler.class)).isInstanceOf(IllegalStateException.class);
+                assertThatThrownBy(() -> context.require(Session.class)).isInstanceOf(IllegalStateException.class);
+            }
+
+            @Test
+            void should_tear_down_components_of_unit_in_reverse_order_once_closed() {
+                // given
+                final Context context = config.getContext();
+                final UnitOfWork unit = context.openUnitOfWork();
+                unit.require(Transaction.class);
+
+                // when
+                unit.close();
+                unit.close();
+
+                // then
+                assertThat(events).containsExactly("transaction", "session");
+                assertThatThrownBy(() -> unit.require(Session.class)).isInstanceOf(IllegalStateException.class);
+            }
+
+            @Test
+            void should_not_let_singleton_capture_component_of_a_unit_of_work() {
+                // given
+                config.bind(SingletonHandler.class, SingletonHandler.class);
+                final Context context = config.getContext();
+
+                // when
+                try (UnitOfWork unit = context.openUnitOfWork()) {
+                    // then
+                    assertThatThrownBy(() -> unit.require(SingletonHandler.class)).isInstanceOf(IllegalStateException.class);
+                }
+            }
+
+            @Test
+            void should_share_instance_within_unit_of_work_resolved_asynchronously() {
+                // given
+                final Context context = config.getContext();
+
+                // when
+                try (UnitOfWork unit = context.openUnitOfWork()) {
+                    final Session session = unit.getAsync(Session.class).join();
+
+                    // then
+                    assertThat(unit.require(Transaction.class).session).isSameAs(session);
+                }
+            }
+        }
+    }
+
+    @Nested
+    public class AsyncResolution {
+        static final CountDownLatch bothStarted = new CountDownLatch(2);
+
+        static class BlockingDependency {
+            boolean startedTogether;
+
+            @Inject
+            void install() throws InterruptedException {
+                bothStarted.countDown();
+                startedTogether = bothStarted.await(5, TimeUnit.SECONDS);
+            }
+        }
+
+        static class AnotherBlockingDependency extends BlockingDependency {
+        }
+
+        static class ComponentWithBlockingDependencies {
+            BlockingDependency blocking;
+
+            @Inject
+            AnotherBlockingDependency anotherBlocking;
+
+            @Inject
+            public ComponentWithBlockingDependencies(BlockingDependency blocking) {
+                this.blocking = blocking;
+            }
+        }
+
+        @Singleton
+        static class AsyncSingleton {
+            static final AtomicInteger constructed = new AtomicInteger();
+
+            public AsyncSingleton() {
+                constructed.incrementAndGet();
+            }
+        }
+
+        @Singleton
+        static class SingletonWithDependency {
+            @Inject
+            public SingletonWithDependency(Dependency dependency) {
+            }
+        }
+
+        static class ComponentWithSameSingletonTwice {
+            AsyncSingleton one;
+            AsyncSingleton another;
+
+            @Inject
+            public ComponentWithSameSingletonTwice(AsyncSingleton one, AsyncSingleton another) {
+                this.one = one;
+                this.another = another;
+            }
+        }
+
+        private ExecutorService executor;
+
+        @BeforeEach
+        void setUp() {
+            executor = Executors.newCachedThreadPool();
+        }
+
+        @AfterEach
+        void tearDown() {
+            executor.shutdownNow();
+        }
+
+        @Test
+        void should_get_component_async() {
+            // given
+            final Dependency dependency = new Dependency() {
+            };
+            config.bind(Dependency.class, dependency);
+            config.bind(Component.class, ComponentWithInjectConstructor.class);
+
+            // when
+            final Component component = config.getContext().getAsync(Component.class, executor).join();
+
+            // then
+            assertThat(((ComponentWithInjectConstructor) component).getDependency()).isSameAs(dependency);
+        }
+
+        @Test
+        void should_construct_independent_dependencies_concurrently() {
+            // given
+            config.bind(BlockingDependency.class, BlockingDependency.class);
+            config.bind(AnotherBlockingDependency.class, AnotherBlockingDependency.class);
+            config.bind(ComponentWithBlockingDependencies.class, ComponentWithBlockingDependencies.class);
+
+            // when
+            final ComponentWithBlockingDependencies component = config.getContext()
+                    .getAsync(ComponentWithBlockingDependencies.class, executor).join();
+
+            // then
+            assertThat(component.blocking.startedTogether).isTrue();
+            assertThat(component.anotherBlocking.startedTogether).isTrue();
+        }
+
+        @Test
+        void should_create_singleton_once_given_resolved_async_concurrently() {
+            // given
+            config.bind(AsyncSingleton.class, AsyncSingleton.class);
+            config.bind(ComponentWithSameSingletonTwice.class, ComponentWithSameSingletonTwice.class);
+            final Context context = config.getContext();
+            final int before = AsyncSingleton.constructed.get();
+
+            // when
+            final CompletableFuture<ComponentWithSameSingletonTwice> one = context.getAsync(ComponentWithSameSingletonTwice.class, executor);
+            final CompletableFuture<ComponentWithSameSingletonTwice> another = context.getAsync(ComponentWithSameSingletonTwice.class, executor);
+
+            // then
+            assertThat(one.join().one).isSameAs(one.join().another).isSameAs(another.join().one);
+            assertThat(one.join()).isNotSameAs(another.join());
+            assertThat(AsyncSingleton.constructed.get() - before).isEqualTo(1);
+        }
+
+        @Test
+        void should_release_singletons_claimed_given_executor_rejecting_tasks() throws Exception {
+            // given
+            config.bind(Dependency.class, new Dependency() {
+            });
+            config.bind(AsyncSingleton.class, AsyncSingleton.class);
+            config.bind(SingletonWithDependency.class, SingletonWithDependency.class);
+            final Context context = config.getContext();
+            final Executor rejecting = command -> {
+                throw new RejectedExecutionException();
+            };
+
+            // when
+            final Throwable rejectedDependency = catchThrowable(() -> context.getAsync(SingletonWithDependency.class, rejecting).join());
+            final Throwable rejectedConstruction = catchThrowable(() -> context.getAsync(AsyncSingleton.class, rejecting).join());
+
+            // then
+            assertThat(rejectedDependency).hasCauseInstanceOf(RejectedExecutionException.class);
+            assertThat(rejectedConstruction).hasCauseInstanceOf(RejectedExecutionException.class);
+            assertThat(context.getAsync(SingletonWithDependency.class, executor).get(5, TimeUnit.SECONDS))
+                    .isSameAs(context.require(SingletonWithDependency.class));
+            assertThat(context.getAsync(AsyncSingleton.class, executor).get(5, TimeUnit.SECONDS))
+                    .isSameAs(context.require(AsyncSingleton.class));
+        }
+
+        @Test
+        void should_fail_future_with_exception_thrown_when_constructing() {
+            // given
+            config.bind(ComponentConstruction.Instantiation.ComponentFailingToConstruct.class,
+                    ComponentConstruction.Instantiation.ComponentFailingToConstruct.class);
+
+            // when
+            final Throwable throwable = catchThrowable(() -> config.getContext()
+                    .getAsync(ComponentConstruction.Instantiation.ComponentFailingToConstruct.class, executor).join());
+
+            // then
+            assertThat(throwable).isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        void should_fail_future_if_component_not_bound() {
+            // when
+            final Throwable throwable = catchThrowable(() -> config.getContext().getAsync(Component.class, executor).join());
+
+            // then
+            assertThat(throwable).isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(DependencyNotFoundException.class);
+        }
+    }
+
+    @Nested
+    public class ChildContexts {
+        @Test
+        void should_resolve_dependencies_from_parent() {
+            // given
+            final Dependency dependency = new Dependency() {
+            };
+            config.bind(Dependency.class, dependency);
+            final Context parent = config.getContext();
+            final ContextConfig child = new ContextConfig(parent);
+            child.bind(Component.class, ComponentWithInjectConstructor.class);
+
+            // when
+            final Context context = child.getContext();
+
+            // then
+            assertThat(((ComponentWithInjectConstructor) context.require(Component.class)).getDependency()).isSameAs(dependency);
+            assertThat(context.require(Dependency.class)).isSameAs(dependency);
+            assertThat(parent.get(Component.class)).isEmpty();
+        }
+
+        @Test
+        void should_prefer_child_bindings_while_parent_keeps_its_own() {
+            // given
+            config.bind(String.class, "parent");
+            config.bind(Dependency.class, DependencyWithInjectorConstructor.class);
+            final ContextConfig child = new ContextConfig(config.getContext());
+            child.bind(String.class, "child");
+
+            // when
+            final Context context = child.getContext();
+
+            // then
+            assertThat(context.require(String.class)).isEqualTo("child");
+            assertThat(((DependencyWithInjectorConstructor) context.require(Dependency.class)).getDependency()).isEqualTo("parent");
+        }
+
+        @Test
+        void should_share_parent_singletons_between_children() {
+            // given
+            config.bind(LifecycleManagement.Scoping.SingletonComponent.class, LifecycleManagement.Scoping.SingletonComponent.class);
+            final Context parent = config.getContext();
+            final ContextConfig one = new ContextConfig(parent);
+            one.bind(LifecycleManagement.Scoping.ComponentDependedOnSingleton.class, LifecycleManagement.Scoping.ComponentDependedOnSingleton.class);
+            final ContextConfig another = new ContextConfig(parent);
+            another.bind(LifecycleManagement.Scoping.ComponentDependedOnSingleton.class, LifecycleManagement.Scoping.ComponentDependedOnSingleton.class);
+
+            // when
+            final LifecycleManagement.Scoping.ComponentDependedOnSingleton first = one.getContext().require(LifecycleManagement.Scoping.ComponentDependedOnSingleton.class);
+            final LifecycleManagement.Scoping.ComponentDependedOnSingleton second = another.getContext().require(LifecycleManagement.Scoping.ComponentDependedOnSingleton.class);
+
+            // then
+            assertThat(first.singleton).isSameAs(second.singleton);
+            assertThat(first.singleton).isSameAs(parent.require(LifecycleManagement.Scoping.SingletonComponent.class));
+        }
+
+        @Test
+        void should_throw_exception_when_dependency_bound_in_neither() {
+            // given
+            config.bind(String.class, "parent");
+            final ContextConfig child = new ContextConfig(config.getContext());
+            child.bind(Component.class, ComponentWithInjectConstructor.class);
+
+            // when
+            final Throwable exception = catchThrowable(child::getContext);
+
+            // then
+            assertThat(exception).isInstanceOf(DependencyNotFoundException.class);
+            assertThat(((DependencyNotFoundException) exception).getDependencyType()).isEqualTo(Dependency.class);
+        }
+
+        @Test
+        void should_only_validate_bindings_of_child() {
+            // given
+            config.bind(String.class, "parent");
+            config.bind(Dependency.class, DependencyWithInjectorConstructor.class);
+            final ContextConfig child = new ContextConfig(config.getContext());
+            final ContainerMetrics metrics = child.enableMetrics();
+            child.bind(Component.class, ComponentWithInjectConstructor.class);
+
+            // when
+            child.getContext().require(Component.class);
+
+            // then
+            assertThat(metrics.getValidations()).isEqualTo(1L);
+            assertThat(metrics.getBindings().keySet()).containsExactly(Key.of(Component.class));
+        }
+    }
+
+    @Nested
+    public class ContainerImages {
+        static class ComponentWithEveryInjectionPoint {
+            Dependency constructed;
+
+            @Inject
+            String field;
+
+            String installed;
+
+            @Inject
+            public ComponentWithEveryInjectionPoint(Dependency dependency) {
+                this.constructed = dependency;
+            }
+
+            @Inject
+            void install(String value) {
+                this.installed = value;
+            }
+        }
+
+        private Path file;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            file = Files.createTempFile("container", ".img");
+            config.bind(Dependency.class, new Dependency() {
+            });
+            config.bind(String.class, "value");
+            config.bind(ComponentWithEveryInjectionPoint.class, ComponentWithEveryInjectionPoint.class);
+            ContainerImage.write(config, file);
+        }
+
+        @AfterEach
+        void tearDown() throws Exception {
+            Files.deleteIfExists(file);
+        }
+
+        @Test
+        void should_resolve_injection_points_recorded_in_image() {
+            // when
+            final InjectionPoints<ComponentWithEveryInjectionPoint> points = ContainerImage.read(file).get()
+                    .resolve(ComponentWithEveryInjectionPoint.class).get().injectionPoints();
+
+            // then
+            final InjectionPoints<ComponentWithEveryInjectionPoint> scanned = InjectionPoints.of(ComponentWithEveryInjectionPoint.class);
+            assertThat(points.getConstructor()).isEqualTo(scanned.getConstructor());
+            assertThat(points.getFields()).containsExactly(scanned.getFields().toArray());
+            assertThat(points.getMethods()).containsExactly(scanned.getMethods().toArray());
+            assertThat(points.getDependencies()).containsExactly(scanned.getDependencies().toArray());
+        }
+
+        @Test
+        void should_get_context_of_same_bindings_from_image() {
+            // given
+            final ContextConfig restarted = new ContextConfig();
+            final Dependency dependency = new Dependency() {
+            };
+
+            // when
+            final boolean used = restarted.useImage(file);
+            restarted.bind(Dependency.class, dependency);
+            restarted.bind(String.class, "value");
+            restarted.bind(ComponentWithEveryInjectionPoint.class, ComponentWithEveryInjectionPoint.class);
+            final ComponentWithEveryInjectionPoint component = restarted.getContext().require(ComponentWithEveryInjectionPoint.class);
+
+            // then
+            assertThat(used).isTrue();
+            assertThat(component.constructed).isSameAs(dependency);
+            assertThat(component.field).isEqualTo("value");
+            assertThat(component.installed).isEqualTo("value");
+        }
+
+        @Test
+        void should_validate_bindings_other_than_those_in_image() {
+            // given
+            final ContextConfig restarted = new ContextConfig();
+            restarted.useImage(file);
+            restarted.bind(String.class, "value");
+            restarted.bind(ComponentWithEveryInjectionPoint.class, ComponentWithEveryInjectionPoint.class);
+
+            // when
+            final Throwable exception = catchThrowable(restarted::getContext);
+
+            // then
+            assertThat(exception).isInstanceOf(DependencyNotFoundException.class);
+            assertThat(((DependencyNotFoundException) exception).getDependencyType()).isEqualTo(Dependency.class);
+        }
+
+        @Test
+        void should_not_skip_validation_given_class_bound_changed_since_written() throws Exception {
+            // given
+            assertThat(ContainerImage.read(file).get().isGraphOf(config.getProviders(), config.getImplementations())).isTrue();
+
+            // when
+            changeRecordedVersion(ComponentWithEveryInjectionPoint.class);
+            final ContainerImage image = ContainerImage.read(file).get();
+
+            // then
+            assertThat(image.isGraphOf(config.getProviders(), config.getImplementations())).isFalse();
+            assertThat(image.resolve(ComponentWithEveryInjectionPoint.class)).isEmpty();
+        }
+
+        @Test
+        void should_write_child_config_depending_on_parent() throws Exception {
+            // given
+            final ContextConfig child = new ContextConfig(config.getContext());
+            child.bind(ComponentWithEveryInjectionPoint.class, ComponentWithEveryInjectionPoint.class);
+
+            // when
+            ContainerImage.write(child, file);
+
+            // then
+            assertThat(ContainerImage.read(file).get().resolve(ComponentWithEveryInjectionPoint.class)).isPresent();
+        }
+
+        @Test
+        void should_not_write_child_config_missing_dependency() {
+            // given
+            final ContextConfig child = new ContextConfig(new ContextConfig().getContext());
+            child.bind(ComponentWithEveryInjectionPoint.class, ComponentWithEveryInjectionPoint.class);
+
+            // when + then
+            assertThatThrownBy(() -> ContainerImage.write(child, file)).isInstanceOf(DependencyNotFoundException.class);
+        }
+
+        static class ComponentWithPrimitiveDependency {
+            final int value;
+
+            @Inject
+            public ComponentWithPrimitiveDependency(int value) {
+                this.value = value;
+            }
+        }
+
+        @Test
+        void should_resolve_constructor_taking_primitive_from_image() throws Exception {
+            // given
+            config.bind(int.class, 42);
+            config.bind(ComponentWithPrimitiveDependency.class, ComponentWithPrimitiveDependency.class);
+            ContainerImage.write(config, file);
+
+            // when
+            final InjectionPoints<ComponentWithPrimitiveDependency> points = ContainerImage.read(file).get()
+                    .resolve(ComponentWithPrimitiveDependency.class).get().injectionPoints();
+
+            // then
+            assertThat(points.getConstructor()).isEqualTo(InjectionPoints.of(ComponentWithPrimitiveDependency.class).getConstructor());
+        }
+
+        /**
+         * Rewrites the class version recorded for {@code impl}, and the checksum, as if {@code impl} had changed.
+         */
+        private void changeRecordedVersion(Class<?> impl) throws Exception {
+            final byte[] bytes = Files.readAllBytes(file);
+            final byte[] name = impl.getName().getBytes(StandardCharsets.UTF_8);
+            int at = 16;
+            while (!Arrays.equals(bytes, at, at + name.length, name, 0, name.length)) at++;
+            bytes[at + name.length] ^= 1;
+            final CRC32 checksum = new CRC32();
+            checksum.update(bytes, 16, bytes.length - 16);
+            ByteBuffer.wrap(bytes, 8, 8).putLong(checksum.getValue());
+            Files.write(file, bytes);
+        }
+
+        @Test
+        void should_not_use_corrupt_or_missing_image() throws Exception {
+            // given
+            final byte[] bytes = Files.readAllBytes(file);
+            bytes[bytes.length - 1] ^= 1;
+            Files.write(file, bytes);
+
+            // when + then
+            assertThat(new ContextConfig().useImage(file)).isFalse();
+            assertThat(new ContextConfig().useImage(file.resolveSibling(file.getFileName() + ".missing"))).isFalse();
+        }
+    }
+
+    @Nested
+    public class Instrumentation {
+        static class ComponentWithSlowInjectMethod {
+            @Inject
+            void install(Dependency dependency) throws InterruptedException {
+                Thread.sleep(20);
+            }
+        }
+
+        @Test
+        void should_count_instances_created_per_binding() {
+            // given
+            final ContainerMetrics metrics = config.enableMetrics();
+            config.bind(Dependency.class, DependencyWithInjectorConstructor.class);
+            config.bind(String.class, "indirect dependency");
+            config.bind(LifecycleManagement.Scoping.SingletonComponent.class, LifecycleManagement.Scoping.SingletonComponent.class);
+            final Context context = config.getContext();
+
+            // when
+            for (int i = 0; i < 3; i++) {
+                context.require(Dependency.class);
+                context.require(LifecycleManagement.Scoping.SingletonComponent.class);
+            }
+
+            // then
+            final ContainerMetrics.Binding dependency = metrics.of(Dependency.class).get();
+            assertThat(dependency.getInstancesCreated()).isEqualTo(3L);
+            assertThat(dependency.getTotalConstructionNanos()).isPositive();
+            assertThat(dependency.getMaxConstructionNanos()).isLessThanOrEqualTo(dependency.getTotalConstructionNanos());
+            assertThat(metrics.of(String.class).get().getInstancesCreated()).isEqualTo(3L);
+            assertThat(metrics.of(LifecycleManagement.Scoping.SingletonComponent.class).get().getInstancesCreated()).isEqualTo(1L);
+            assertThat(metrics.getValidations()).isEqualTo(1L);
+        }
+
+        @Test
+        void should_time_inject_methods_apart() {
+            // given
+            final ContainerMetrics metrics = config.enableMetrics();
+            config.bind(Dependency.class, new Dependency() {
+            });
+            config.bind(ComponentWithSlowInjectMethod.class, ComponentWithSlowInjectMethod.class);
+
+            // when
+            config.getContext().require(ComponentWithSlowInjectMethod.class);
+
+            // then
+            final ContainerMetrics.Binding binding = metrics.of(ComponentWithSlowInjectMethod.class).get();
+            assertThat(binding.getInjectionNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+            assertThat(binding.getTotalConstructionNanos()).isGreaterThanOrEqualTo(binding.getInjectionNanos());
+        }
+
+        @Test
+        void should_record_nothing_in_contexts_got_before_metrics_enabled() {
+            // given
+            config.bind(Component.class, ComponentWithDefaultConstructor.class);
+            final Context context = config.getContext();
+            final ContainerMetrics metrics = config.enableMetrics();
+
+            // when
+            context.require(Component.class);
+
+            // then
+            assertThat(metrics.of(Component.class)).isEmpty();
+            assertThat(metrics.getValidations()).isZero();
+        }
+
+        @Test
+        void should_emit_flight_recorder_events() throws Exception {
+            // given
+            config.enableMetrics();
+            config.bind(Component.class, ComponentWithDefaultConstructor.class);
+            final Path dump = Files.createTempFile("container", ".jfr");
+
+            // when
+            try (Recording recording = new Recording()) {
+                recording.enable("org.boyu.Construction").withThreshold(Duration.ZERO);
+                recording.enable("org.boyu.Validation").withThreshold(Duration.ZERO);
+                recording.start();
+                config.getContext().require(Component.class);
+                recording.stop();
+                recording.dump(dump);
+            }
+
+            // then
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            Files.delete(dump);
+            assertThat(events.stream().map(it -> it.getEventType().getName()).toList())
+                    .contains("org.boyu.Construction", "org.boyu.Validation");
+            assertThat(events.stream()
+                    .filter(it -> it.getEventType().getName().equals("org.boyu.Construction"))
+                    .map(it -> it.getString("binding"))
+                    .toList())
+                    .containsExactly(Component.class.getName());
+        }
+    }
+
+    @Nested
+    public class GraphIntrospection {
+        static class ComponentWithProviderAndDependency implements Component {
+            @Inject
+            Provider<Dependency> provider;
+
+            @Inject
+            String value;
+        }
+
+        private final Key<Component> component = Key.of(Component.class);
+        private final Key<Dependency> dependency = Key.of(Dependency.class);
+        private final Key<String> value = Key.of(String.class);
+
+        @BeforeEach
+        void setUp() {
+            config.bind(Component.class, ComponentWithInjectConstructor.class);
+            config.bind(Dependency.class, DependencyWithInjectorConstructor.class);
+            config.bind(String.class, "indirect dependency");
+        }
+
+        @Test
+        void should_list_nodes_in_topological_order_with_their_edges() {
+            // when
+            final ContainerGraph graph = config.getGraph();
+
+            // then
+            assertThat(graph.getNodes()).containsExactly(value, dependency, component);
+            assertThat(graph.getEdges()).containsExactlyInAnyOrder(
+                    new ContainerGraph.Edge(component, dependency, false),
+                    new ContainerGraph.Edge(dependency, value, false));
+            assertThat(graph.getFanOut(component)).isEqualTo(1);
+            assertThat(graph.getFanIn(value)).isEqualTo(1);
+            assertThat(graph.getDepth(component)).isEqualTo(2);
+            assertThat(graph.getDepth(value)).isEqualTo(0);
+        }
+
+        @Test
+        void should_mark_edges_through_provider_deferred_and_leave_them_out_of_depth() {
+            // given
+            config.bind(Component.class, ComponentWithProviderAndDependency.class);
+
+            // when
+            final ContainerGraph graph = config.getGraph();
+
+            // then
+            assertThat(graph.getDependencies(component)).containsExactly(
+                    new ContainerGraph.Edge(component, dependency, true),
+                    new ContainerGraph.Edge(component, value, false));
+            assertThat(graph.getDependents(dependency)).hasSize(1);
+            assertThat(graph.getDepth(component)).isEqualTo(1);
+        }
+
+        @Test
+        void should_throw_exception_given_graph_not_valid() {
+            // given
+            config.bind(Dependency.class, DependencyDependedOnComponent.class);
+
+            // when + then
+            assertThatThrownBy(() -> config.getGraph()).isInstanceOf(CyclicDependenciesFoundException.class);
+        }
+
+        @Test
+        void should_find_slowest_chain_of_construction() {
+            // given
+            config.bind(AnotherDependency.class, new AnotherDependency() {
+            });
+            final Map<Key<?>, Long> nanos = Map.of(component, 10L, dependency, 20L, value, 30L, Key.of(AnotherDependency.class), 50L);
+
+            // when
+            final ContainerGraph.Path path = config.getGraph().getCriticalPath(key -> nanos.get(key));
+
+            // then
+            assertThat(path.components()).containsExactly(value, dependency, component);
+            assertThat(path.nanos()).isEqualTo(60L);
+        }
+
+        @Test
+        void should_find_critical_path_from_measured_construction() {
+            // given
+            final ContainerMetrics metrics = config.enableMetrics();
+            config.getContext().require(Component.class);
+
+            // when
+            final ContainerGraph.Path path = config.getGraph().getCriticalPath(metrics);
+
+            // then
+            assertThat(path.components()).containsExactly(value, dependency, component);
+            assertThat(path.nanos()).isPositive();
+        }
+
+        @Test
+        void should_export_to_dot_and_json() {
+            // when
+            final ContainerGraph graph = config.getGraph();
+
+            // then
+            assertThat(graph.toDot()).startsWith("digraph container {")
+                    .contains("\"org.boyu.Component\" -> \"org.boyu.Dependency\";");
+            assertThat(graph.toJson())
+                    .contains("{\"key\":\"org.boyu.Component\",\"depth\":2,\"fanIn\":0,\"fanOut\":1}")
+                    .contains("{\"from\":\"org.boyu.Dependency\",\"to\":\"java.lang.String\",\"deferred\":false}");
+        }
+    }
+
+    @Nested
+    public class IncrementalValidation {
+        @BeforeEach
+        void setUp() {
+            config.bind(Component.class, ComponentWithInjectConstructor.class);
+            config.bind(Dependency.class, new Dependency() {
+            });
+            config.getContext();
+        }
+
+        @Test
+        void should_find_dependency_missing_from_binding_replaced_after_context_got() {
+            // given
+            config.bind(Dependency.class, DependencyWithInjectorConstructor.class);
+
+            // when
+            final Throwable throwable = catchThrowable(() -> config.getContext());
+
+            // then
+            assertThat(throwable).isInstanceOf(DependencyNotFoundException.class);
+            assertThat(((DependencyNotFoundException) throwable).getDependencyType()).isEqualTo(String.class);
+        }
+
+        @Test
+        void should_find_cycle_through_bindings_unchanged_since_context_got() {
+            // given
+            config.bind(Dependency.class, DependencyDependedOnComponent.class);
+
+            // when + then
+            assertThatThrownBy(() -> config.getContext()).isInstanceOf(CyclicDependenciesFoundException.class);
+        }
+
+        @Test
+        void should_check_binding_again_until_valid() {
+            // given
+            config.bind(Dependency.class, DependencyWithInjectorConstructor.class);
+            catchThrowable(() -> config.getContext());
+
+            // when
+            final Throwable again = catchThrowable(() -> config.getContext());
+            config.bind(String.class, "indirect dependency");
+
+            // then
+            assertThat(again).isInstanceOf(DependencyNotFoundException.class);
+            assertThat(config.getContext().require(Component.class)).isInstanceOf(ComponentWithInjectConstructor.class);
+        }
+
+        @Test
+        void should_only_check_changed_bindings_and_their_dependents_again() {
+            // given
+            final Map<Key<?>, AtomicInteger> checks = new HashMap<>();
+            final Map<Key<?>, ComponentProvider<?>> providers = new HashMap<>();
+            final ValidatedGraph graph = new ValidatedGraph();
+            final BiConsumer<String, List<Key<?>>> bind = (name, dependencies) -> {
+                final Key<String> key = Key.named(String.class, name);
+                checks.put(key, new AtomicInteger());
+                providers.put(key, new ComponentProvider<String>() {
+                    @Override
+                    public String get(Context context) {
+                        return name;
+                    }
+
+                    @Override
+                    public List<Key<?>> getDependencies() {
+                        checks.get(key).incrementAndGet();
+                        return dependencies;
+                    }
+                });
+                graph.changed(key);
+            };
+            bind.accept("leaf", List.of());
+            bind.accept("dependent", List.of(Key.named(String.class, "leaf")));
+            bind.accept("unrelated", List.of());
+            graph.check(Map.copyOf(providers), key -> false);
+            checks.values().forEach(it -> it.set(0));
+
+            // when
+            bind.accept("leaf", List.of());
+            bind.accept("new", List.of(Key.named(String.class, "unrelated")));
+            final List<Key<?>> checked = graph.check(Map.copyOf(providers), key -> false);
+
+            // then
+            assertThat(checked).containsExactlyInAnyOrder(
+                    Key.named(String.class, "leaf"), Key.named(String.class, "dependent"), Key.named(String.class, "new"));
+            assertThat(checks.get(Key.named(String.class, "unrelated")).get()).isEqualTo(0);
+            assertThat(graph.order()).hasSize(4);
+        }
+    }
+
+    @Nested
+    public class ComponentIndexing {
+        @Test
+        void should_index_bindable_classes_with_their_interfaces_at_compile_time() {
+            // when
+            final List<ComponentIndex.Entry> entries = ComponentIndex.read(getClass().getClassLoader());
+
+            // then
+            assertThat(entries).contains(
+                    new ComponentIndex.Entry(ComponentWithInjectConstructor.class.getName(), List.of(Component.class.getName())),
+                    new ComponentIndex.Entry(ComponentWithFieldInjection.class.getName(), List.of()),
+                    new ComponentIndex.Entry(ComponentWithJdkInterface.class.getName(), List.of(Component.class.getName())));
+            assertThat(entries.stream().map(ComponentIndex.Entry::impl).toList()).doesNotContain(
+                    AbstractComponent.class.getName(),
+                    ComponentWithDefaultConstructor.class.getName(),
+                    ComponentWithMultiInjectConstructors.class.getName(),
+                    ComponentWithNoInjectNorDefaultConstructor.class.getName());
+        }
+
+        @Test
+        void should_parse_index_skipping_comments_and_blank_lines() {
+            // when
+            final List<ComponentIndex.Entry> entries = ComponentIndex.parse("# generated\n\norg.example.Impl  org.example.Api org.example.Other\n");
+
+            // then
+            assertThat(entries).containsExactly(new ComponentIndex.Entry("org.example.Impl", List.of("org.example.Api", "org.example.Other")));
+        }
+
+        @Test
+        void should_bind_indexed_classes_to_themselves_and_their_interfaces() {
+            // given
+            config.bind(String.class, "indirect dependency");
+
+            // when
+            config.bindFromIndex(Set.of(ComponentWithInjectConstructor.class.getName(), DependencyWithInjectorConstructor.class.getName())::contains);
+
+            // then
+            final Context context = config.getContext();
+            assertThat(context.require(Component.class)).isInstanceOf(ComponentWithInjectConstructor.class);
+            assertThat(context.require(Dependency.class)).isInstanceOf(DependencyWithInjectorConstructor.class);
+            assertThat(context.get(ComponentWithInjectConstructor.class)).isPresent();
+        }
+
+        @Test
+        void should_bind_every_class_in_indexes_of_context_class_loader() throws Exception {
+            // given
+            final Path index = Files.createTempFile("components", ".idx");
+            Files.writeString(index, ComponentWithInjectConstructor.class.getName() + " " + Component.class.getName() + "\n"
+                    + DependencyWithInjectorConstructor.class.getName() + " " + Dependency.class.getName() + "\n");
+            final ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {
+                @Override
+                public Enumeration<URL> getResources(String name) throws IOException {
+                    return Collections.enumeration(name.equals(ComponentIndex.LOCATION) ? List.of(index.toUri().toURL()) : List.of());
+                }
+            };
+            config.bind(String.class, "indirect dependency");
+            final ClassLoader original = Thread.currentThread().getContextClassLoader();
+
+            // when
+            Thread.currentThread().setContextClassLoader(loader);
+            try {
+                config.bindFromIndex();
+            } finally {
+                Thread.currentThread().setContextClassLoader(original);
+                Files.delete(index);
+            }
+
+            // then
+            final Context context = config.getContext();
+            assertThat(context.require(Component.class)).isInstanceOf(ComponentWithInjectConstructor.class);
+            assertThat(context.require(Dependency.class)).isInstanceOf(DependencyWithInjectorConstructor.class);
+        }
+
+        @Test
+        void should_not_bind_interface_implemented_by_several_indexed_classes() {
+            // given
+            config.bind(String.class, "indirect dependency");
+            config.bind(AnotherDependency.class, new AnotherDependency() {
+            });
+
+            // when
+            config.bindFromIndex(Set.of(DependencyWithInjectorConstructor.class.getName(), DependencyDependedOnAnotherDep.class.getName())::contains);
+
+            // then
+            final Context context = config.getContext();
+            assertThat(context.get(Dependency.class)).isEmpty();
+            assertThat(context.get(DependencyWithInjectorConstructor.class)).isPresent();
+            assertThat(context.get(DependencyDependedOnAnotherDep.class)).isPresent();
+        }
+    }
 }
@@ -0,0 +1,8 @@
+package org.boyu;
+
+import jakarta.inject.Inject;
+
+class SubHidingInjectField extends SuperWithInjectField {
+    @Inject
+    String name;
+}
@@ -0,0 +1,8 @@
+package org.boyu;
+
+import jakarta.inject.Inject;
+
+class SuperWithInjectField {
+    @Inject
+    String name;
+}